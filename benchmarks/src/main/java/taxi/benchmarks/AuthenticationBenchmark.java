@@ -0,0 +1,42 @@
+package taxi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.exception.AuthenticationException;
+import taxi.model.Driver;
+import taxi.service.AuthenticationService;
+
+/**
+ * Dominated by PBKDF2 at the configured cost. Run with {@code -t} above the number of
+ * cores to see the hashing pool queue, or with
+ * {@code -jvmArgs -Dtaxi.password.iterations=...} to compare costs.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthenticationBenchmark {
+    @Benchmark
+    public Driver login(Dataset dataset) throws AuthenticationException {
+        return dataset.getInstance(AuthenticationService.class).login(
+                BenchmarkDatabase.login(dataset.randomDriverId()), BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean loginWithWrongPassword(Dataset dataset) {
+        try {
+            dataset.getInstance(AuthenticationService.class).login(
+                    BenchmarkDatabase.login(dataset.randomDriverId()), "wrong");
+            return true;
+        } catch (AuthenticationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package taxi.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import taxi.util.ConnectionUtil;
+import taxi.util.MigrationRunner;
+import taxi.util.PasswordUtil;
+
+/**
+ * Creates and fills the database the benchmarks run against. Unless {@code taxi.db.url}
+ * is given, that is an in-memory H2 database in MySQL mode; a MySQL url is migrated with
+ * the application's own scripts and has to point at an empty schema.
+ */
+public class BenchmarkDatabase {
+    public static final String PASSWORD = "password";
+    private static final String H2_URL = "jdbc:h2:mem:taxi;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1";
+    private static final String H2_NO_QUERY_CACHE = ";QUERY_CACHE_SIZE=0";
+    private static final String H2_SCHEMA = "h2-schema.sql";
+    private static final int MANUFACTURERS = 100;
+    private static final int DRIVERS_PER_CAR = 2;
+    private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT_MANUFACTURER_QUERY =
+            "INSERT INTO manufacturers (name, country) VALUES (?, ?)";
+    private static final String INSERT_DRIVER_QUERY = "INSERT INTO drivers "
+            + "(name, license_number, login, password) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CAR_QUERY =
+            "INSERT INTO cars (model, manufacturer_id) VALUES (?, ?)";
+    private static final String INSERT_CAR_DRIVER_QUERY =
+            "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)";
+
+    /**
+     * Must run before anything touches {@link ConnectionUtil}, which reads the connection
+     * settings once. H2 ignores the MySQL statement cache settings, so turning the cache
+     * off turns off H2's own parsed query cache instead.
+     */
+    public static void configure() {
+        if (System.getProperty("taxi.db.url") == null) {
+            boolean statementCache = Boolean.parseBoolean(
+                    System.getProperty("taxi.db.statementCache", "true"));
+            System.setProperty("taxi.db.url",
+                    statementCache ? H2_URL : H2_URL + H2_NO_QUERY_CACHE);
+            System.setProperty("taxi.db.user", "sa");
+            System.setProperty("taxi.db.password", "");
+        }
+    }
+
+    public static void createSchema() throws SQLException, IOException {
+        if (!System.getProperty("taxi.db.url").startsWith("jdbc:h2:")) {
+            MigrationRunner.migrate();
+            return;
+        }
+        String script;
+        try (InputStream in = BenchmarkDatabase.class.getClassLoader()
+                .getResourceAsStream(H2_SCHEMA)) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * Seeds ids 1..n of every table: driver {@code i} signs in as {@code driver-i} with
+     * {@link #PASSWORD}, and car {@code i} has {@value #DRIVERS_PER_CAR} drivers, so every
+     * driver has about {@code 2 * cars / drivers} cars.
+     */
+    public static void seed(int drivers, int cars) throws SQLException {
+        String passwordHash = PasswordUtil.hash(PASSWORD);
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement =
+                         connection.prepareStatement(INSERT_MANUFACTURER_QUERY)) {
+                for (int i = 1; i <= MANUFACTURERS; i++) {
+                    statement.setString(1, "Manufacturer " + i);
+                    statement.setString(2, "Country " + i % 10);
+                    addBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_DRIVER_QUERY)) {
+                for (int i = 1; i <= drivers; i++) {
+                    statement.setString(1, "Driver " + i);
+                    statement.setString(2, "LIC-" + i);
+                    statement.setString(3, login(i));
+                    statement.setString(4, passwordHash);
+                    addBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+        addCars(drivers, 1, cars);
+    }
+
+    /**
+     * Seeds cars {@code from..to} the way {@link #seed(int, int)} does, so a seeded fleet
+     * can grow between runs. Ids must continue those already seeded.
+     */
+    public static void addCars(int drivers, int from, int to) throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CAR_QUERY)) {
+                for (int i = from; i <= to; i++) {
+                    statement.setString(1, "Model " + i);
+                    statement.setLong(2, i % MANUFACTURERS + 1);
+                    addBatch(connection, statement, i);
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement =
+                         connection.prepareStatement(INSERT_CAR_DRIVER_QUERY)) {
+                int rows = 0;
+                for (int i = from; i <= to; i++) {
+                    for (int j = 0; j < Math.min(DRIVERS_PER_CAR, drivers); j++) {
+                        statement.setLong(1, i);
+                        statement.setLong(2, ((long) i * DRIVERS_PER_CAR + j) % drivers + 1);
+                        addBatch(connection, statement, ++rows);
+                    }
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    public static String login(long driverId) {
+        return "driver-" + driverId;
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement statement, int row)
+            throws SQLException {
+        statement.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+}
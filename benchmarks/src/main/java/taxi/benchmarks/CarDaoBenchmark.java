@@ -0,0 +1,41 @@
+package taxi.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.dao.CarDao;
+import taxi.model.Car;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+
+/**
+ * Calls the DAO directly, so the service caches don't hide the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarDaoBenchmark {
+    @Benchmark
+    public List<Car> getAll(Dataset dataset) {
+        return dataset.getInstance(CarDao.class).getAll();
+    }
+
+    @Benchmark
+    public List<Car> getAllByDriver(Dataset dataset) {
+        return dataset.getInstance(CarDao.class).getAllByDriver(dataset.randomDriverId());
+    }
+
+    @Benchmark
+    public Page<Car> getPage(Dataset dataset) {
+        return dataset.getInstance(CarDao.class).getPage(new PageRequest(
+                dataset.randomCarId(), PageRequest.DEFAULT_SIZE, PageRequest.Direction.ASC));
+    }
+}
@@ -0,0 +1,57 @@
+package taxi.benchmarks;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import taxi.lib.Injector;
+import taxi.util.ConnectionUtil;
+import taxi.util.PasswordUtil;
+
+/**
+ * The seeded database shared by all threads of one fork. Sizes are set with
+ * {@code -p drivers=...} and {@code -p cars=...}.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    @Param({"1000"})
+    private int drivers;
+    @Param({"1000"})
+    private int cars;
+    private Injector injector;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.createSchema();
+        BenchmarkDatabase.seed(drivers, cars);
+        injector = Injector.getInstance("taxi");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PasswordUtil.shutdown();
+        ConnectionUtil.shutdown();
+    }
+
+    public <T> T getInstance(Class<T> type) {
+        return type.cast(injector.getInstance(type));
+    }
+
+    public long randomDriverId() {
+        return ThreadLocalRandom.current().nextLong(drivers) + 1;
+    }
+
+    public long randomCarId() {
+        return ThreadLocalRandom.current().nextLong(cars) + 1;
+    }
+
+    public int getCars() {
+        return cars;
+    }
+}
@@ -0,0 +1,32 @@
+package taxi.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.dao.DriverDao;
+import taxi.model.Driver;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverDaoBenchmark {
+    @Benchmark
+    public Optional<Driver> findByLogin(Dataset dataset) {
+        return dataset.getInstance(DriverDao.class)
+                .findByLogin(BenchmarkDatabase.login(dataset.randomDriverId()));
+    }
+
+    @Benchmark
+    public Optional<Driver> findCredentialsByLogin(Dataset dataset) {
+        return dataset.getInstance(DriverDao.class)
+                .findCredentialsByLogin(BenchmarkDatabase.login(dataset.randomDriverId()));
+    }
+}
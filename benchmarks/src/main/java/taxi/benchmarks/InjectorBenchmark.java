@@ -0,0 +1,40 @@
+package taxi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.lib.Injector;
+import taxi.service.CarService;
+
+/**
+ * Lookups made on every controller construction. Building the injector itself happens
+ * once per JVM and is measured by {@link #getInjector()} only on its first call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class InjectorBenchmark {
+    private final Injector injector = Injector.getInstance("taxi");
+
+    @Benchmark
+    public Injector getInjector() {
+        return Injector.getInstance("taxi");
+    }
+
+    @Benchmark
+    public Object getService() {
+        return injector.getInstance(CarService.class);
+    }
+}
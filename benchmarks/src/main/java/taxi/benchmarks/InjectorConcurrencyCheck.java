@@ -0,0 +1,152 @@
+package taxi.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import taxi.lib.processor.ComponentIndexProcessor;
+
+/**
+ * Builds the injector from {@code injectorcheck.threads} threads released at the same
+ * moment, the way servlets are initialized concurrently on startup, and checks that they
+ * all got the same injector and the same instance of every component. Each of the
+ * {@code injectorcheck.rounds} rounds loads the application classes in a new class loader,
+ * so every round starts without an injector. Exits with status 1 on the first mismatch.
+ */
+public class InjectorConcurrencyCheck {
+    private static final String INJECTOR_CLASS = "taxi.lib.Injector";
+    private static final String MAIN_PACKAGE = "taxi";
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("injectorcheck.threads", 32);
+        int rounds = Integer.getInteger("injectorcheck.rounds", 50);
+        BenchmarkDatabase.configure();
+        for (int round = 1; round <= rounds; round++) {
+            List<String> failures = checkRound(threads);
+            if (!failures.isEmpty()) {
+                System.err.println("Round " + round + " failed:");
+                failures.forEach(failure -> System.err.println("  " + failure));
+                System.exit(1);
+            }
+        }
+        System.out.printf("%d rounds of %d threads: one injector and one instance per "
+                + "component in every round%n", rounds, threads);
+        System.exit(0);
+    }
+
+    private static List<String> checkRound(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (URLClassLoader classLoader = newApplicationClassLoader()) {
+            List<Class<?>> components = readComponents(classLoader);
+            Class<?> injectorClass = Class.forName(INJECTOR_CLASS, true, classLoader);
+            Method getInjector = injectorClass.getMethod("getInstance", String.class);
+            Method getComponent = injectorClass.getMethod("getInstance", Class.class);
+            CyclicBarrier start = new CyclicBarrier(threads);
+            List<Future<Object[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(lookup(classLoader, start, getInjector,
+                        getComponent, components)));
+            }
+            List<Object[]> lookups = new ArrayList<>();
+            for (Future<Object[]> result : results) {
+                lookups.add(result.get());
+            }
+            return compare(lookups, components);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the injector followed by the instance of every component, as seen by one
+     * thread.
+     */
+    private static Callable<Object[]> lookup(ClassLoader classLoader, CyclicBarrier start,
+                                             Method getInjector, Method getComponent,
+                                             List<Class<?>> components) {
+        return () -> {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            start.await();
+            Object injector = getInjector.invoke(null, MAIN_PACKAGE);
+            Object[] seen = new Object[components.size() + 1];
+            seen[0] = injector;
+            for (int i = 0; i < components.size(); i++) {
+                seen[i + 1] = getComponent.invoke(injector, components.get(i));
+            }
+            return seen;
+        };
+    }
+
+    private static List<String> compare(List<Object[]> lookups, List<Class<?>> components) {
+        List<String> failures = new ArrayList<>();
+        for (int i = 0; i <= components.size(); i++) {
+            Map<Object, Boolean> distinct = new IdentityHashMap<>();
+            for (Object[] seen : lookups) {
+                distinct.put(seen[i], Boolean.TRUE);
+            }
+            if (distinct.size() != 1) {
+                failures.add((i == 0 ? "injector" : components.get(i - 1).getName())
+                        + ": " + distinct.size() + " distinct instances");
+            }
+        }
+        return failures;
+    }
+
+    private static List<Class<?>> readComponents(ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        Set<String> interfaces = new TreeSet<>();
+        Enumeration<URL> indexes =
+                classLoader.getResources(ComponentIndexProcessor.INDEX_LOCATION);
+        while (indexes.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (!line.startsWith("#") && separator >= 0
+                            && line.startsWith(MAIN_PACKAGE + ".")) {
+                        interfaces.add(line.substring(0, separator).trim());
+                    }
+                }
+            }
+        }
+        if (interfaces.isEmpty()) {
+            throw new IllegalStateException("No components found in "
+                    + ComponentIndexProcessor.INDEX_LOCATION);
+        }
+        List<Class<?>> components = new ArrayList<>();
+        for (String name : interfaces) {
+            components.add(Class.forName(name, false, classLoader));
+        }
+        return components;
+    }
+
+    /**
+     * A loader over the whole class path that doesn't delegate to the application class
+     * loader, so the injector's static state is created anew.
+     */
+    private static URLClassLoader newApplicationClassLoader() throws IOException {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            urls[i] = new File(entries[i]).toURI().toURL();
+        }
+        return new URLClassLoader(urls, ClassLoader.getPlatformClassLoader());
+    }
+}
@@ -0,0 +1,58 @@
+package taxi.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The INFO line every DAO and service method writes, from several threads at once, with
+ * the synchronous and the asynchronous loggers. Each variant runs in its own fork with
+ * log4j2-benchmark.xml, the application's file appender without the console. The
+ * asynchronous variant uses the deployed settings, which drop INFO events while the ring
+ * buffer is full; the blocking one waits for free space instead, so it shows the rate the
+ * background thread can sustain.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class LoggingBenchmark {
+    private static final String CONFIGURATION = "-Dlog4j.configurationFile=log4j2-benchmark.xml";
+    private static final String SYNCHRONOUS = "-DLog4jContextSelector="
+            + "org.apache.logging.log4j.core.selector.ClassLoaderContextSelector";
+    private static final String BLOCKING = "-Dlog4j2.asyncQueueFullPolicy=Default";
+    private static final Logger logger = LogManager.getLogger(LoggingBenchmark.class);
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, SYNCHRONOUS})
+    public void synchronous() {
+        log();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = CONFIGURATION)
+    public void asynchronous() {
+        log();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, BLOCKING})
+    public void asynchronousBlocking() {
+        log();
+    }
+
+    private void log() {
+        logger.info("Method get was called with params: id = {}",
+                ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,62 @@
+package taxi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import taxi.dao.CarDao;
+import taxi.lib.Injector;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.RequestMetrics;
+import taxi.model.PageRequest;
+
+/**
+ * Counts the statements the car listings send to the database as the fleet grows, using
+ * the same per-request counter as the N+1 detection. Fleet sizes are the increasing
+ * comma-separated {@code querycount.cars}; the drivers, {@code querycount.drivers}, stay
+ * the same. The DAO is called directly, so the service caches don't hide any statement.
+ */
+public class QueryCountReport {
+    private static final String DEFAULT_CARS = "100,1000,10000,100000";
+
+    public static void main(String[] args) throws Exception {
+        final int drivers = Integer.getInteger("querycount.drivers", 1000);
+        List<Integer> fleetSizes = new ArrayList<>();
+        for (String size : System.getProperty("querycount.cars", DEFAULT_CARS).split(",")) {
+            fleetSizes.add(Integer.parseInt(size.trim()));
+        }
+        if (!MetricsRegistry.isEnabled()) {
+            throw new IllegalStateException("Statements are only counted with metrics enabled");
+        }
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.createSchema();
+        BenchmarkDatabase.seed(drivers, fleetSizes.get(0));
+        CarDao carDao = (CarDao) Injector.getInstance("taxi").getInstance(CarDao.class);
+        System.out.printf("%n%d drivers; statements (rows) per call%n", drivers);
+        System.out.printf("%10s %20s %20s %20s%n", "cars", "getAll", "getAllByDriver",
+                "getPage");
+        int seededCars = fleetSizes.get(0);
+        for (int cars : fleetSizes) {
+            if (cars > seededCars) {
+                BenchmarkDatabase.addCars(drivers, seededCars + 1, cars);
+                seededCars = cars;
+            }
+            System.out.printf("%10d %20s %20s %20s%n", cars,
+                    count(carDao::getAll),
+                    count(() -> carDao.getAllByDriver(1L)),
+                    count(() -> carDao.getPage(new PageRequest(0L, PageRequest.DEFAULT_SIZE,
+                            PageRequest.Direction.ASC)).getContent()));
+        }
+        System.exit(0);
+    }
+
+    private static String count(Supplier<? extends Collection<?>> listing) {
+        RequestMetrics requestMetrics = RequestMetrics.start("query count");
+        try {
+            int rows = listing.get().size();
+            return requestMetrics.getStatementCount() + " (" + rows + ")";
+        } finally {
+            RequestMetrics.end();
+        }
+    }
+}
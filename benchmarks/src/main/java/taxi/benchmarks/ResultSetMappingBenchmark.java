@@ -0,0 +1,96 @@
+package taxi.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.util.ConnectionUtil;
+
+/**
+ * Maps {@value #ROWS} rows that were already fetched into a scrollable result set with the
+ * DAOs' own private mapping methods, so only the mapping is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultSetMappingBenchmark {
+    private static final int ROWS = 100;
+    private static final String CARS_QUERY = "SELECT c.id AS id, model, manufacturer_id, "
+            + "m.name AS manufacturer_name, m.country AS manufacturer_country "
+            + "FROM cars c JOIN manufacturers m ON c.manufacturer_id = m.id "
+            + "ORDER BY c.id LIMIT " + ROWS;
+    private static final String DRIVERS_QUERY = "SELECT * FROM drivers ORDER BY id LIMIT "
+            + ROWS;
+    private Connection connection;
+    private ResultSet cars;
+    private ResultSet drivers;
+    private Object carDao;
+    private Object driverDao;
+    private MethodHandle parseCar;
+    private MethodHandle parseDriver;
+
+    @Setup(Level.Trial)
+    public void setUp(Dataset dataset) throws ReflectiveOperationException, SQLException {
+        carDao = dataset.getInstance(CarDao.class);
+        driverDao = dataset.getInstance(DriverDao.class);
+        parseCar = findMapper(carDao, "parseCarFromResultSet");
+        parseDriver = findMapper(driverDao, "parseDriverFromResultSet");
+        connection = ConnectionUtil.getConnection();
+        Statement statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
+                ResultSet.CONCUR_READ_ONLY);
+        cars = statement.executeQuery(CARS_QUERY);
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
+                ResultSet.CONCUR_READ_ONLY);
+        drivers = statement.executeQuery(DRIVERS_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void mapCars(Blackhole blackhole) throws Throwable {
+        cars.beforeFirst();
+        while (cars.next()) {
+            blackhole.consume(parseCar.invoke(carDao, cars));
+        }
+    }
+
+    @Benchmark
+    public void mapDrivers(Blackhole blackhole) throws Throwable {
+        drivers.beforeFirst();
+        while (drivers.next()) {
+            blackhole.consume(parseDriver.invoke(driverDao, drivers));
+        }
+    }
+
+    private static MethodHandle findMapper(Object dao, String name)
+            throws ReflectiveOperationException {
+        Method method = dao.getClass().getDeclaredMethod(name, ResultSet.class);
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+}
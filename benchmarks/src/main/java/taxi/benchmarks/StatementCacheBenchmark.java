@@ -0,0 +1,66 @@
+package taxi.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+
+/**
+ * Short lookups, where preparing the statement is a large share of the work, with the
+ * statement cache on and off. Each variant runs in its own fork, since the connection
+ * settings are read once per JVM. On MySQL this compares cached server-side prepared
+ * statements with the driver's defaults; on H2 it compares H2's parsed query cache with
+ * none.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatementCacheBenchmark {
+    private static final String CACHE_OFF = "-Dtaxi.db.statementCache=false";
+
+    @Benchmark
+    @Fork(1)
+    public Optional<Driver> findByLoginCached(Dataset dataset) {
+        return findByLogin(dataset);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = CACHE_OFF)
+    public Optional<Driver> findByLoginUncached(Dataset dataset) {
+        return findByLogin(dataset);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Page<Car> getCarPageCached(Dataset dataset) {
+        return getCarPage(dataset);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = CACHE_OFF)
+    public Page<Car> getCarPageUncached(Dataset dataset) {
+        return getCarPage(dataset);
+    }
+
+    private Optional<Driver> findByLogin(Dataset dataset) {
+        return dataset.getInstance(DriverDao.class)
+                .findByLogin(BenchmarkDatabase.login(dataset.randomDriverId()));
+    }
+
+    private Page<Car> getCarPage(Dataset dataset) {
+        return dataset.getInstance(CarDao.class).getPage(new PageRequest(
+                dataset.randomCarId(), PageRequest.DEFAULT_SIZE, PageRequest.Direction.ASC));
+    }
+}
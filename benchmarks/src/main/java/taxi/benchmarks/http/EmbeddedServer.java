@@ -0,0 +1,41 @@
+package taxi.benchmarks.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+
+/**
+ * Runs the packaged WAR in an embedded Tomcat on a free local port.
+ */
+public class EmbeddedServer {
+    private final Tomcat tomcat = new Tomcat();
+
+    public EmbeddedServer(File war) throws IOException {
+        if (!war.isFile()) {
+            throw new IllegalArgumentException("Can't find " + war + ", run mvn package first");
+        }
+        File baseDir = Files.createTempDirectory("taxi-loadtest").toFile();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.getHost().setAppBase(baseDir.getAbsolutePath());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+        Context context = tomcat.addWebapp("", war.getAbsolutePath());
+        StandardJarScanner jarScanner = new StandardJarScanner();
+        jarScanner.setScanClassPath(false);
+        context.setJarScanner(jarScanner);
+    }
+
+    public int start() throws LifecycleException {
+        tomcat.start();
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    public void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,63 @@
+package taxi.benchmarks.http;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint as seen by one virtual user; merged after the run. Not
+ * thread-safe.
+ */
+public class EndpointStats {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final String name;
+    private long[] latencies = new long[INITIAL_CAPACITY];
+    private int count;
+    private long errors;
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void merge(EndpointStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i]);
+        }
+        errors += other.errors;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the latency in milliseconds below which the given fraction of requests
+     * completed, using the nearest-rank method.
+     */
+    public double getPercentileMillis(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(fraction * count);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
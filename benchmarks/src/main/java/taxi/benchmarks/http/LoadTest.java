@@ -0,0 +1,177 @@
+package taxi.benchmarks.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.catalina.LifecycleException;
+import taxi.benchmarks.BenchmarkDatabase;
+import taxi.util.JsonWriter;
+
+/**
+ * End-to-end load test of the servlet controllers: seeds the database, deploys the packaged
+ * WAR in an embedded Tomcat and lets {@code loadtest.threads} signed-in drivers hit it
+ * through real HTTP for the warm-up and measurement periods. Prints throughput and
+ * p50/p99/p999 per endpoint and writes the same numbers as JSON to
+ * {@code loadtest.output}.
+ *
+ * <p>{@code loadtest.cars} takes a comma-separated list of increasing fleet sizes, e.g.
+ * {@code 1000,10000,100000,1000000}. The test then runs once per size: it grows the seeded
+ * fleet to that size and deploys the WAR again, so every run starts with cold caches.
+ */
+public class LoadTest {
+    private static final String DEFAULT_WAR = "target/taxi-service-1.0-SNAPSHOT.war";
+    private static final String DEFAULT_OUTPUT = "target/loadtest-result.json";
+    private static final String DEFAULT_CARS = "10000";
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+        int drivers = Integer.getInteger("loadtest.drivers", 10_000);
+        List<Integer> fleetSizes = parseFleetSizes(System.getProperty("loadtest.cars",
+                DEFAULT_CARS));
+        File war = new File(System.getProperty("loadtest.war", DEFAULT_WAR));
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.createSchema();
+        BenchmarkDatabase.seed(drivers, fleetSizes.get(0));
+        System.setProperty("taxi.db.migrate", "false");
+        Map<Integer, Map<String, EndpointStats>> results = new LinkedHashMap<>();
+        int seededCars = fleetSizes.get(0);
+        for (int cars : fleetSizes) {
+            if (cars > seededCars) {
+                BenchmarkDatabase.addCars(drivers, seededCars + 1, cars);
+                seededCars = cars;
+            }
+            EmbeddedServer server = new EmbeddedServer(war);
+            int port = server.start();
+            try {
+                results.put(cars, run("http://127.0.0.1:" + port, threads, drivers, cars,
+                        warmupSeconds, durationSeconds));
+            } finally {
+                stop(server);
+            }
+            print(results.get(cars), threads, drivers, cars, durationSeconds);
+        }
+        write(Path.of(System.getProperty("loadtest.output", DEFAULT_OUTPUT)), results,
+                threads, drivers, durationSeconds);
+        System.exit(0);
+    }
+
+    private static List<Integer> parseFleetSizes(String parameter) {
+        List<Integer> fleetSizes = new ArrayList<>();
+        for (String size : parameter.split(",")) {
+            int cars = Integer.parseInt(size.trim());
+            if (!fleetSizes.isEmpty() && cars <= fleetSizes.get(fleetSizes.size() - 1)) {
+                throw new IllegalArgumentException("loadtest.cars must increase: " + parameter);
+            }
+            fleetSizes.add(cars);
+        }
+        return fleetSizes;
+    }
+
+    private static Map<String, EndpointStats> run(String baseUrl, int threads, int drivers,
+                                                  int cars, int warmupSeconds,
+                                                  int durationSeconds)
+            throws InterruptedException {
+        long recordFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = recordFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<VirtualUser> users = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            VirtualUser user = new VirtualUser(baseUrl, i % drivers + 1, drivers, cars,
+                    recordFrom, deadline);
+            Thread worker = new Thread(user, "loadtest-user-" + i);
+            users.add(user);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Map<String, EndpointStats> merged = new LinkedHashMap<>();
+        for (VirtualUser user : users) {
+            for (EndpointStats endpointStats : user.getStats().values()) {
+                merged.computeIfAbsent(endpointStats.getName(), EndpointStats::new)
+                        .merge(endpointStats);
+            }
+        }
+        return merged;
+    }
+
+    private static void stop(EmbeddedServer server) {
+        try {
+            server.stop();
+        } catch (LifecycleException e) {
+            System.err.println("Can't stop embedded server: " + e.getMessage());
+        }
+    }
+
+    private static void print(Map<String, EndpointStats> stats, int threads, int drivers,
+                              int cars, int durationSeconds) {
+        System.out.printf("%n%d threads, %d drivers, %d cars, %d s%n", threads, drivers, cars,
+                durationSeconds);
+        System.out.printf("%-24s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests",
+                "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        for (EndpointStats endpointStats : stats.values()) {
+            System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    endpointStats.getName(), endpointStats.getCount(),
+                    endpointStats.getErrors(),
+                    (double) endpointStats.getCount() / durationSeconds,
+                    endpointStats.getPercentileMillis(PERCENTILES[0]),
+                    endpointStats.getPercentileMillis(PERCENTILES[1]),
+                    endpointStats.getPercentileMillis(PERCENTILES[2]));
+        }
+    }
+
+    private static void write(Path output, Map<Integer, Map<String, EndpointStats>> results,
+                              int threads, int drivers, int durationSeconds)
+            throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            JsonWriter json = new JsonWriter(writer);
+            json.beginObject()
+                    .name("threads").value(threads)
+                    .name("drivers").value(drivers)
+                    .name("durationSeconds").value(durationSeconds)
+                    .name("runs").beginArray();
+            for (Map.Entry<Integer, Map<String, EndpointStats>> run : results.entrySet()) {
+                json.beginObject()
+                        .name("cars").value(run.getKey())
+                        .name("endpoints").beginArray();
+                for (EndpointStats endpointStats : run.getValue().values()) {
+                    writeEndpoint(json, endpointStats, durationSeconds);
+                }
+                json.endArray().endObject();
+            }
+            json.endArray().endObject().flush();
+        }
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static void writeEndpoint(JsonWriter json, EndpointStats endpointStats,
+                                      int durationSeconds) throws IOException {
+        json.beginObject()
+                .name("endpoint").value(endpointStats.getName())
+                .name("requests").value(endpointStats.getCount())
+                .name("errors").value(endpointStats.getErrors())
+                .name("throughput")
+                .value((double) endpointStats.getCount() / durationSeconds);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            json.name(PERCENTILE_NAMES[i] + "Millis")
+                    .value(endpointStats.getPercentileMillis(PERCENTILES[i]));
+        }
+        json.endObject();
+    }
+}
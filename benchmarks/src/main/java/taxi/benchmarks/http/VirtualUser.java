@@ -0,0 +1,121 @@
+package taxi.benchmarks.http;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import taxi.benchmarks.BenchmarkDatabase;
+
+/**
+ * One signed-in driver with its own cookies, repeating a fixed mix of requests until the
+ * deadline: 40% car listing, 30% driver listing, 20% own cars, 10% driver assignment.
+ * Requests started before the warm-up ends are not recorded, except the one sign-in, which
+ * therefore includes the cold start of the application.
+ */
+public class VirtualUser implements Runnable {
+    private static final String[] ENDPOINTS = {
+        "GET /cars", "GET /drivers", "GET /drivers/cars", "POST /cars/drivers/add"};
+    private static final int[] CUMULATIVE_WEIGHTS = {40, 70, 90, 100};
+    private final String baseUrl;
+    private final long driverId;
+    private final int drivers;
+    private final int cars;
+    private final long recordFrom;
+    private final long deadline;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .cookieHandler(new CookieManager())
+            .build();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    public VirtualUser(String baseUrl, long driverId, int drivers, int cars, long recordFrom,
+                       long deadline) {
+        this.baseUrl = baseUrl;
+        this.driverId = driverId;
+        this.drivers = drivers;
+        this.cars = cars;
+        this.recordFrom = recordFrom;
+        this.deadline = deadline;
+        stats.put("POST /login", new EndpointStats("POST /login"));
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            boolean signedIn = send("POST /login", post("/login", "login="
+                    + BenchmarkDatabase.login(driverId) + "&password="
+                    + BenchmarkDatabase.PASSWORD), 302, true);
+            if (!signedIn) {
+                return;
+            }
+            while (System.nanoTime() < deadline) {
+                sendNext();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    private void sendNext() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < CUMULATIVE_WEIGHTS[0]) {
+            send(ENDPOINTS[0], get("/cars?after=" + random.nextInt(cars)), 200, false);
+        } else if (roll < CUMULATIVE_WEIGHTS[1]) {
+            send(ENDPOINTS[1], get("/drivers?after=" + random.nextInt(drivers)), 200, false);
+        } else if (roll < CUMULATIVE_WEIGHTS[2]) {
+            send(ENDPOINTS[2], get("/drivers/cars"), 200, false);
+        } else {
+            send(ENDPOINTS[3], post("/cars/drivers/add", "driver_id="
+                    + (random.nextInt(drivers) + 1) + "&car_id=" + (random.nextInt(cars) + 1)),
+                    302, false);
+        }
+    }
+
+    private boolean send(String endpoint, HttpRequest request, int expectedStatus,
+                         boolean alwaysRecord) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<byte[]> response = client.send(request,
+                    HttpResponse.BodyHandlers.ofByteArray());
+            success = response.statusCode() == expectedStatus;
+        } catch (IOException e) {
+            success = false;
+        }
+        long end = System.nanoTime();
+        if (alwaysRecord || start >= recordFrom) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (success) {
+                endpointStats.record(end - start);
+            } else {
+                endpointStats.recordError();
+            }
+        }
+        return success;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+}
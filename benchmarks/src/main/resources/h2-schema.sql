@@ -0,0 +1,39 @@
+-- The schema of db/migration rewritten for H2, including every index up to V7.
+CREATE TABLE drivers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    license_number VARCHAR(255) NOT NULL,
+    login VARCHAR(55) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE UNIQUE INDEX uk_drivers_login ON drivers (login);
+CREATE UNIQUE INDEX uk_drivers_license_number ON drivers (license_number);
+CREATE INDEX idx_drivers_is_deleted_id ON drivers (is_deleted, id);
+
+CREATE TABLE manufacturers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    country VARCHAR(255) NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE INDEX idx_manufacturers_is_deleted_id ON manufacturers (is_deleted, id);
+
+CREATE TABLE cars (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    model VARCHAR(255) NOT NULL,
+    manufacturer_id BIGINT NOT NULL,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_manufacturer_id FOREIGN KEY (manufacturer_id) REFERENCES manufacturers (id)
+);
+CREATE INDEX idx_cars_is_deleted_id ON cars (is_deleted, id);
+CREATE INDEX idx_cars_is_deleted_manufacturer_id ON cars (is_deleted, manufacturer_id);
+
+CREATE TABLE cars_drivers (
+    car_id BIGINT NOT NULL,
+    driver_id BIGINT NOT NULL,
+    PRIMARY KEY (car_id, driver_id),
+    CONSTRAINT fk_car_id FOREIGN KEY (car_id) REFERENCES cars (id),
+    CONSTRAINT fk_driver_id FOREIGN KEY (driver_id) REFERENCES drivers (id)
+);
+CREATE INDEX idx_cars_drivers_driver_id_car_id ON cars_drivers (driver_id, car_id);
@@ -0,0 +1,25 @@
+package taxi.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public interface Cache<K, V> {
+    V getIfPresent(K key);
+
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * Returns the cached values of the keys and loads the missing ones with a single call
+     * to {@code loader}, which gets the missing keys and returns the values it found by
+     * key. Loaded values are stored on the same terms as in {@link #get(Object, Function)}.
+     */
+    Map<K, V> getAll(Collection<? extends K> keys, Function<List<K>, Map<K, V>> loader);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+}
@@ -0,0 +1,54 @@
+package taxi.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.JmxUtil;
+
+/**
+ * Registry of the named caches shared by the services. Caches are {@link LruCache}
+ * instances sized by the {@code taxi.cache.<name>.maxSize} and
+ * {@code taxi.cache.<name>.ttlMillis} system properties, or {@link NoOpCache} instances
+ * when {@code taxi.cache.enabled} is {@code false}. The {@link CarDriverIndex} is sized
+ * like the car cache, by {@code taxi.cache.cars.maxSize}.
+ */
+public class CacheManager {
+    private static final Logger logger = LogManager.getLogger(CacheManager.class);
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("taxi.cache.enabled", "true"));
+    private static final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private static final int CAR_DRIVER_INDEX_MAX_SIZE = 10_000;
+    private static final CarDriverIndex carDriverIndex = new CarDriverIndex(
+            Integer.getInteger("taxi.cache.cars.maxSize", CAR_DRIVER_INDEX_MAX_SIZE));
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Cache<K, V> getCache(String name, int defaultMaxSize,
+                                              long defaultTtlMillis) {
+        return (Cache<K, V>) caches.computeIfAbsent(name,
+                key -> createCache(key, defaultMaxSize, defaultTtlMillis));
+    }
+
+    public static CarDriverIndex getCarDriverIndex() {
+        return carDriverIndex;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static Cache<?, ?> createCache(String name, int defaultMaxSize,
+                                           long defaultTtlMillis) {
+        if (!ENABLED) {
+            logger.info("Caching is disabled, cache {} won't store anything", name);
+            return new NoOpCache<>();
+        }
+        int maxSize = Integer.getInteger("taxi.cache." + name + ".maxSize", defaultMaxSize);
+        long ttlMillis = Long.getLong("taxi.cache." + name + ".ttlMillis", defaultTtlMillis);
+        logger.info("Creating cache {} with maxSize = {}, ttlMillis = {}",
+                name, maxSize, ttlMillis);
+        LruCache<?, ?> cache = new LruCache<>(maxSize, ttlMillis);
+        JmxUtil.register(cache, "taxi:type=Cache,name=" + name);
+        return cache;
+    }
+}
@@ -0,0 +1,20 @@
+package taxi.cache;
+
+import javax.management.MXBean;
+
+@MXBean
+public interface CacheStats {
+    int getSize();
+
+    int getMaxSize();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    long getExpirationCount();
+}
@@ -0,0 +1,138 @@
+package taxi.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of the {@code cars_drivers} relation for the cars and drivers loaded so
+ * far. A car is present only with its complete set of active drivers and a driver only
+ * with the complete set of active cars, so a hit can be answered without the database.
+ * Every car listed for a driver, and every car kept in the car cache, also has its own
+ * entry, which lets writes find all entries they make stale.
+ *
+ * <p>Both maps keep at most {@code maxSize} least recently used entries. Evicting a car
+ * also drops the drivers listing it and tells the car eviction listener, so that the car
+ * cache never keeps a car the index can no longer find.
+ */
+public class CarDriverIndex {
+    private final int maxSize;
+    private final Map<Long, Set<Long>> carIdsByDriverId;
+    private final Map<Long, Set<Long>> driverIdsByCarId;
+    private Consumer<Long> carEvictionListener = carId -> { };
+    private long version;
+
+    public CarDriverIndex(int maxSize) {
+        this.maxSize = maxSize;
+        this.carIdsByDriverId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Set<Long>> eldest) {
+                return size() > CarDriverIndex.this.maxSize;
+            }
+        };
+        this.driverIdsByCarId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Set<Long>> eldest) {
+                if (size() <= CarDriverIndex.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().forEach(carIdsByDriverId::remove);
+                carEvictionListener.accept(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public synchronized void setCarEvictionListener(Consumer<Long> carEvictionListener) {
+        this.carEvictionListener = carEvictionListener;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized Set<Long> getCarIds(Long driverId) {
+        Set<Long> carIds = carIdsByDriverId.get(driverId);
+        return carIds == null ? null : Set.copyOf(carIds);
+    }
+
+    /**
+     * Stores the drivers of a car unless the index changed since {@code expectedVersion},
+     * which means the car was read before a concurrent write and may be stale.
+     * {@code onStored} runs under the index lock, so writers that invalidate the index
+     * before their caches can't interleave with it.
+     */
+    public synchronized void putCar(Long carId, Collection<Long> driverIds,
+                                    long expectedVersion, Runnable onStored) {
+        if (version == expectedVersion) {
+            driverIdsByCarId.put(carId, new HashSet<>(driverIds));
+            onStored.run();
+        }
+    }
+
+    /**
+     * Stores the cars of a driver, with the same version check as
+     * {@link #putCar(Long, Collection, long, Runnable)}. A driver with more cars than the
+     * index holds is not stored at all.
+     */
+    public synchronized void putDriver(Long driverId,
+                                       Map<Long, ? extends Collection<Long>> driverIdsByCar,
+                                       long expectedVersion, Runnable onStored) {
+        if (version != expectedVersion || driverIdsByCar.size() > maxSize) {
+            return;
+        }
+        driverIdsByCar.forEach((carId, driverIds) ->
+                driverIdsByCarId.put(carId, new HashSet<>(driverIds)));
+        carIdsByDriverId.put(driverId, new HashSet<>(driverIdsByCar.keySet()));
+        onStored.run();
+    }
+
+    public synchronized void invalidateCar(Long carId, Collection<Long> affectedDriverIds) {
+        version++;
+        Set<Long> driverIds = driverIdsByCarId.remove(carId);
+        if (driverIds != null) {
+            driverIds.forEach(carIdsByDriverId::remove);
+        }
+        affectedDriverIds.forEach(carIdsByDriverId::remove);
+    }
+
+    /**
+     * Drops a deleted driver from the index and returns the ids of the cars known to
+     * include it.
+     */
+    public synchronized Set<Long> removeDriver(Long driverId) {
+        version++;
+        Set<Long> carIds = getCarIdsContaining(driverId);
+        carIdsByDriverId.remove(driverId);
+        carIds.forEach(carId -> driverIdsByCarId.get(carId).remove(driverId));
+        return carIds;
+    }
+
+    /**
+     * Makes loads that started before a driver changed stale and returns the ids of the
+     * cars known to include it, whose cached copies carry the old driver.
+     */
+    public synchronized Set<Long> invalidateDriver(Long driverId) {
+        version++;
+        return getCarIdsContaining(driverId);
+    }
+
+    public synchronized Set<Long> getCarIdsContaining(Long driverId) {
+        Set<Long> carIds = new HashSet<>();
+        driverIdsByCarId.forEach((carId, driverIds) -> {
+            if (driverIds.contains(driverId)) {
+                carIds.add(carId);
+            }
+        });
+        return carIds;
+    }
+
+    public synchronized void clear() {
+        version++;
+        driverIdsByCarId.clear();
+        carIdsByDriverId.clear();
+    }
+}
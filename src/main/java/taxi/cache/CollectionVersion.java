@@ -0,0 +1,76 @@
+package taxi.cache;
+
+import java.util.concurrent.atomic.AtomicReference;
+import taxi.util.TransactionManager;
+
+/**
+ * Change counter of one table as seen by this node, used to answer conditional GETs of
+ * listings without querying the database. Services call {@link #increment()} on every
+ * write; the bump waits for the surrounding transaction, so a version never describes
+ * data that was not committed yet. Writes made by other nodes are not seen, which is why
+ * {@code ConditionalGetUtil} lets the validators built from these versions expire.
+ */
+public class CollectionVersion {
+    public static final CollectionVersion CARS = new CollectionVersion("cars");
+    public static final CollectionVersion DRIVERS = new CollectionVersion("drivers");
+    public static final CollectionVersion MANUFACTURERS =
+            new CollectionVersion("manufacturers");
+    private static final long EPOCH = System.currentTimeMillis();
+    private static final long SECOND_MILLIS = 1000;
+    private final String name;
+    private final AtomicReference<Snapshot> current =
+            new AtomicReference<>(new Snapshot(0, EPOCH / SECOND_MILLIS * SECOND_MILLIS));
+
+    private CollectionVersion(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Identifies this run of the application, so versions counted after a restart never
+     * match tags issued before it.
+     */
+    public static long getEpoch() {
+        return EPOCH;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot get() {
+        return current.get();
+    }
+
+    public void increment() {
+        TransactionManager.afterCompletion(this::bump);
+    }
+
+    /**
+     * Last-Modified only has second precision, so every bump moves it to a later second,
+     * even when that runs ahead of the clock. Otherwise a second write within the same
+     * second would still match If-Modified-Since.
+     */
+    private void bump() {
+        long now = System.currentTimeMillis() / SECOND_MILLIS * SECOND_MILLIS;
+        current.updateAndGet(previous -> new Snapshot(previous.version + 1,
+                Math.max(now, previous.lastModified + SECOND_MILLIS)));
+    }
+
+    public static class Snapshot {
+        private final long version;
+        private final long lastModified;
+
+        Snapshot(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
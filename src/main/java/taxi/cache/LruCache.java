@@ -0,0 +1,202 @@
+package taxi.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache with least-recently-used eviction and a time-to-live
+ * for every entry. A value loaded through {@link #get(Object, Function)} is only stored
+ * if no invalidation happened while it was being loaded, so a concurrent write can't be
+ * overwritten by a stale read.
+ */
+public class LruCache<K, V> implements Cache<K, V>, CacheStats {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired()) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generationBeforeLoad = generation.get();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (entries) {
+                if (generation.get() == generationBeforeLoad) {
+                    entries.put(key, new Entry<>(loaded, expiresAt()));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> values = new HashMap<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (K key : new LinkedHashSet<K>(keys)) {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                values.put(key, cached);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return values;
+        }
+        long generationBeforeLoad = generation.get();
+        Map<K, V> loaded = loader.apply(missingKeys);
+        synchronized (entries) {
+            if (generation.get() == generationBeforeLoad) {
+                long expiresAt = expiresAt();
+                loaded.forEach((key, value) -> entries.put(key, new Entry<>(value, expiresAt)));
+            }
+        }
+        values.putAll(loaded);
+        return values;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.put(key, new Entry<>(value, expiresAt()));
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            removeExpired();
+            return entries.size();
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private void removeExpired() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
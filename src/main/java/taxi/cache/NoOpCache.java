@@ -0,0 +1,40 @@
+package taxi.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class NoOpCache<K, V> implements Cache<K, V> {
+    @Override
+    public V getIfPresent(K key) {
+        return null;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return loader.apply(key);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys,
+                            Function<List<K>, Map<K, V>> loader) {
+        return keys.isEmpty() ? new HashMap<>() : new HashMap<>(loader.apply(
+                new ArrayList<>(new LinkedHashSet<>(keys))));
+    }
+
+    @Override
+    public void put(K key, V value) {
+    }
+
+    @Override
+    public void invalidate(K key) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+}
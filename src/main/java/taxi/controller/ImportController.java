@@ -0,0 +1,140 @@
+package taxi.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.ImportReport;
+import taxi.model.Manufacturer;
+import taxi.service.ImportService;
+import taxi.util.CsvUtil;
+import taxi.util.JsonReader;
+
+public class ImportController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final Logger logger = LogManager.getLogger(ImportController.class);
+    private static final String VIEW = "/WEB-INF/views/import.jsp";
+    private final ImportService importService = (ImportService) injector
+            .getInstance(ImportService.class);
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        logger.info("Method doGet was called");
+        req.getRequestDispatcher(VIEW).forward(req, resp);
+    }
+
+    @Override
+    public void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String type = req.getParameter("type");
+        Part file = req.getPart("file");
+        logger.info("Method doPost was called with params: type = {}, file = {}, size = {}",
+                type, file == null ? null : file.getSubmittedFileName(),
+                file == null ? 0 : file.getSize());
+        if (file == null || file.getSize() == 0) {
+            req.setAttribute("errorMsg", "Choose a file to import");
+            req.getRequestDispatcher(VIEW).forward(req, resp);
+            return;
+        }
+        List<Map<String, String>> rows;
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            rows = isJson(file) ? new JsonReader(reader).readObjects() : CsvUtil.parse(reader);
+        } catch (IOException e) {
+            logger.warn("Can't parse import file, reason: {}", e.getMessage());
+            req.setAttribute("errorMsg", "Can't parse file: " + e.getMessage());
+            req.getRequestDispatcher(VIEW).forward(req, resp);
+            return;
+        }
+        ImportReport report;
+        switch (type == null ? "" : type) {
+            case "manufacturers":
+                report = importService.importManufacturers(toManufacturers(rows));
+                break;
+            case "drivers":
+                report = importService.importDrivers(toDrivers(rows));
+                break;
+            case "cars":
+                report = importService.importCars(toCars(rows));
+                break;
+            default:
+                req.setAttribute("errorMsg", "Unknown import type " + type);
+                req.getRequestDispatcher(VIEW).forward(req, resp);
+                return;
+        }
+        req.setAttribute("report", report);
+        req.getRequestDispatcher(VIEW).forward(req, resp);
+    }
+
+    private boolean isJson(Part file) {
+        String name = file.getSubmittedFileName();
+        return name != null && name.toLowerCase().endsWith(".json")
+                || file.getContentType() != null && file.getContentType().contains("json");
+    }
+
+    private List<Manufacturer> toManufacturers(List<Map<String, String>> rows) {
+        List<Manufacturer> manufacturers = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            manufacturers.add(new Manufacturer(row.get("name"), row.get("country")));
+        }
+        return manufacturers;
+    }
+
+    private List<Driver> toDrivers(List<Map<String, String>> rows) {
+        List<Driver> drivers = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            drivers.add(new Driver(row.get("name"), row.get("license_number"),
+                    row.get("login"), row.get("password")));
+        }
+        return drivers;
+    }
+
+    /**
+     * Car rows reference an existing manufacturer by {@code manufacturer_id} and existing
+     * drivers by {@code driver_ids}, separated by {@code ;}. Values that are not numbers
+     * are left empty so that validation reports them against the row.
+     */
+    private List<Car> toCars(List<Map<String, String>> rows) {
+        List<Car> cars = new ArrayList<>(rows.size());
+        for (Map<String, String> row : rows) {
+            Manufacturer manufacturer = new Manufacturer();
+            manufacturer.setId(parseId(row.get("manufacturer_id")));
+            Car car = new Car(row.get("model"), manufacturer);
+            List<Driver> drivers = new ArrayList<>();
+            String driverIds = row.get("driver_ids");
+            if (driverIds != null && !driverIds.isBlank()) {
+                for (String driverId : driverIds.split(";")) {
+                    Driver driver = new Driver();
+                    driver.setId(parseId(driverId));
+                    drivers.add(driver);
+                }
+            }
+            car.setDrivers(drivers);
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    private Long parseId(String value) {
+        try {
+            return value == null ? null : Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
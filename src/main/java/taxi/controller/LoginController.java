@@ -11,7 +11,9 @@ import org.apache.logging.log4j.Logger;
 import taxi.exception.AuthenticationException;
 import taxi.lib.Injector;
 import taxi.model.Driver;
+import taxi.model.DriverPrincipal;
 import taxi.service.AuthenticationService;
+import taxi.web.util.AuthTokenUtil;
 
 public class LoginController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -34,8 +36,13 @@ public class LoginController extends HttpServlet {
         logger.info("Method doPost was called with params: login = {}", login);
         try {
             Driver driver = authenticationService.login(login, password);
-            HttpSession session = req.getSession();
-            session.setAttribute("driver_id", driver.getId());
+            if (AuthTokenUtil.isTokenMode(getServletContext())) {
+                AuthTokenUtil.issue(req, resp, driver.getId());
+            } else {
+                HttpSession session = req.getSession();
+                session.setAttribute(DriverPrincipal.ATTRIBUTE,
+                        authenticationService.getPrincipal(driver.getId()));
+            }
             resp.sendRedirect(req.getContextPath() + "/index");
         } catch (AuthenticationException e) {
             logger.error("Authentication failed. ", e);
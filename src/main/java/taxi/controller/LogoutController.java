@@ -5,8 +5,10 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.web.util.AuthTokenUtil;
 
 public class LogoutController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger(LogoutController.class);
@@ -15,7 +17,13 @@ public class LogoutController extends HttpServlet {
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.info("Method doGet was called");
-        req.getSession().invalidate();
+        if (AuthTokenUtil.isTokenMode(getServletContext())) {
+            AuthTokenUtil.clear(req, resp);
+        }
+        HttpSession session = req.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         resp.sendRedirect(req.getContextPath() + "/login");
     }
 }
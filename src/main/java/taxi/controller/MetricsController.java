@@ -0,0 +1,32 @@
+package taxi.controller;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.MetricsRegistry;
+import taxi.model.DriverPrincipal;
+
+/**
+ * Serves the metrics to Prometheus. Per-template SQL series are written only for a
+ * signed-in driver: when the deployment opens {@code /metrics} to anonymous scrapers, they
+ * stay behind {@code /metrics/queries}.
+ */
+public class MetricsController extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger(MetricsController.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        logger.info("Method doGet was called");
+        if (!MetricsRegistry.isEnabled()) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        resp.setContentType(CONTENT_TYPE);
+        boolean signedIn = req.getAttribute(DriverPrincipal.ATTRIBUTE) != null;
+        MetricsRegistry.getInstance().writePrometheus(resp.getWriter(), signedIn);
+    }
+}
@@ -0,0 +1,89 @@
+package taxi.controller;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.StatementProfiler;
+import taxi.metrics.StatementStats;
+import taxi.web.util.JsonResponseUtil;
+
+/**
+ * Lists the top SQL templates by {@code sort} (total, mean, max, count, rows or repeated,
+ * total time by default), at most {@code top} of them.
+ */
+public class QueryProfileController extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger(QueryProfileController.class);
+    private static final int DEFAULT_TOP = 20;
+    private static final String DEFAULT_SORT = "total";
+    private static final Map<String, Comparator<StatementStats>> ORDERS = new TreeMap<>(Map.of(
+            "total", Comparator.comparingLong(StatementStats::getTotalNanos),
+            "mean", Comparator.comparingDouble(StatementStats::getMeanMillis),
+            "max", Comparator.comparingLong(StatementStats::getMaxNanos),
+            "count", Comparator.comparingLong(StatementStats::getCount),
+            "rows", Comparator.comparingLong(stats -> stats.getRows().sum()),
+            "repeated", Comparator.comparingLong(stats -> stats.getRepeatedRequests().sum())));
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String sort = req.getParameter("sort") == null ? DEFAULT_SORT : req.getParameter("sort");
+        String top = req.getParameter("top");
+        logger.info("Method doGet was called with params: sort = {}, top = {}", sort, top);
+        if (!MetricsRegistry.isEnabled()) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_NOT_FOUND,
+                    "Metrics are disabled");
+            return;
+        }
+        Comparator<StatementStats> order = ORDERS.get(sort);
+        if (order == null) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Unknown sort " + sort + ", expected one of " + ORDERS.keySet());
+            return;
+        }
+        int limit;
+        try {
+            limit = top == null ? DEFAULT_TOP : Integer.parseInt(top);
+        } catch (NumberFormatException e) {
+            limit = 0;
+        }
+        if (limit < 1) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Parameter top must be a positive number");
+            return;
+        }
+        List<StatementStats> statements = StatementProfiler.getTop(order.reversed(), limit);
+        final String sortedBy = sort;
+        JsonResponseUtil.send(req, resp, json -> {
+            json.beginObject()
+                    .name("sort").value(sortedBy)
+                    .name("statements").beginArray();
+            for (StatementStats stats : statements) {
+                long count = stats.getCount();
+                long rows = stats.getRows().sum();
+                json.beginObject()
+                        .name("template").value(stats.getTemplate())
+                        .name("count").value(count)
+                        .name("totalMillis").value(stats.getTotalNanos() / 1_000_000.0)
+                        .name("meanMillis").value(stats.getMeanMillis())
+                        .name("maxMillis").value(stats.getMaxNanos() / 1_000_000.0)
+                        .name("rows").value(rows)
+                        .name("rowsPerExecution").value(count == 0 ? 0 : (double) rows / count)
+                        .name("repeatedRequests").value(stats.getRepeatedRequests().sum())
+                        .name("histogram").beginObject();
+                for (Map.Entry<String, Long> bucket
+                        : stats.getExecutionTime().toMap().entrySet()) {
+                    json.name(bucket.getKey()).value(bucket.getValue());
+                }
+                json.endObject().endObject();
+            }
+            json.endArray().endObject();
+        });
+    }
+}
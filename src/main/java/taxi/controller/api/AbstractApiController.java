@@ -0,0 +1,92 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.model.Page;
+import taxi.service.GenericService;
+import taxi.util.JsonWriter;
+import taxi.web.util.FieldProjection;
+import taxi.web.util.JsonResponseUtil;
+import taxi.web.util.PaginationUtil;
+
+/**
+ * Read-only JSON access to one collection, mapped to {@code /api/<collection>/*}:
+ * <ul>
+ *     <li>{@code GET /api/<collection>?after=&size=&sort=&fields=} returns a page as
+ *     {@code {"items": [...], "nextCursor": ...}};</li>
+ *     <li>{@code GET /api/<collection>/{id}?fields=} returns one element;</li>
+ *     <li>{@code GET /api/<collection>/{id}/<name>} is handed to
+ *     {@link #getSubresource}.</li>
+ * </ul>
+ */
+public abstract class AbstractApiController<T> extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger(AbstractApiController.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String pathInfo = req.getPathInfo();
+        logger.info("Method doGet was called with params: servletPath = {}, pathInfo = {}",
+                req.getServletPath(), pathInfo);
+        String[] segments = pathInfo == null || pathInfo.equals("/")
+                ? new String[0] : pathInfo.substring(1).split("/");
+        try {
+            if (segments.length == 0) {
+                FieldProjection fields = FieldProjection.parse(req.getParameter("fields"),
+                        getFieldNames());
+                Page<T> page = getService().getPage(PaginationUtil.parsePageRequest(req));
+                JsonResponseUtil.send(req, resp, json -> writePage(json, page, fields));
+            } else if (segments.length == 1) {
+                FieldProjection fields = FieldProjection.parse(req.getParameter("fields"),
+                        getFieldNames());
+                T element = getService().get(Long.valueOf(segments[0]));
+                JsonResponseUtil.send(req, resp, json -> writeElement(json, element, fields));
+            } else if (segments.length == 2) {
+                getSubresource(req, resp, Long.valueOf(segments[0]), segments[1]);
+            } else {
+                JsonResponseUtil.sendError(resp, HttpServletResponse.SC_NOT_FOUND,
+                        "No resource at " + req.getRequestURI());
+            }
+        } catch (NumberFormatException e) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    "Invalid id " + segments[0]);
+        } catch (IllegalArgumentException e) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_BAD_REQUEST,
+                    e.getMessage());
+        } catch (NoSuchElementException e) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+        }
+    }
+
+    protected abstract GenericService<T> getService();
+
+    protected abstract Set<String> getFieldNames();
+
+    protected abstract void writeElement(JsonWriter json, T element, FieldProjection fields)
+            throws IOException;
+
+    /**
+     * Answers {@code GET /api/<collection>/{id}/<name>}; there are none by default.
+     */
+    protected void getSubresource(HttpServletRequest req, HttpServletResponse resp, Long id,
+                                  String name) throws IOException {
+        JsonResponseUtil.sendError(resp, HttpServletResponse.SC_NOT_FOUND,
+                "No resource at " + req.getRequestURI());
+    }
+
+    private void writePage(JsonWriter json, Page<T> page, FieldProjection fields)
+            throws IOException {
+        json.beginObject().name("items").beginArray();
+        for (T element : page.getContent()) {
+            writeElement(json, element, fields);
+        }
+        json.endArray()
+                .name("nextCursor").value(page.getNextCursor())
+                .endObject();
+    }
+}
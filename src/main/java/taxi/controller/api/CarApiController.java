@@ -0,0 +1,32 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.Set;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.service.CarService;
+import taxi.service.GenericService;
+import taxi.util.JsonWriter;
+import taxi.web.util.FieldProjection;
+
+public class CarApiController extends AbstractApiController<Car> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final CarService carService = (CarService) injector
+            .getInstance(CarService.class);
+
+    @Override
+    protected GenericService<Car> getService() {
+        return carService;
+    }
+
+    @Override
+    protected Set<String> getFieldNames() {
+        return JsonViews.CAR_FIELDS;
+    }
+
+    @Override
+    protected void writeElement(JsonWriter json, Car car, FieldProjection fields)
+            throws IOException {
+        JsonViews.writeCar(json, car, fields);
+    }
+}
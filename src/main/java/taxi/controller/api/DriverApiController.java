@@ -0,0 +1,64 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+import taxi.service.GenericService;
+import taxi.util.JsonWriter;
+import taxi.web.util.FieldProjection;
+import taxi.web.util.JsonResponseUtil;
+
+public class DriverApiController extends AbstractApiController<Driver> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final DriverService driverService = (DriverService) injector
+            .getInstance(DriverService.class);
+    private final CarService carService = (CarService) injector
+            .getInstance(CarService.class);
+
+    @Override
+    protected GenericService<Driver> getService() {
+        return driverService;
+    }
+
+    @Override
+    protected Set<String> getFieldNames() {
+        return JsonViews.DRIVER_FIELDS;
+    }
+
+    @Override
+    protected void writeElement(JsonWriter json, Driver driver, FieldProjection fields)
+            throws IOException {
+        JsonViews.writeDriver(json, driver, fields);
+    }
+
+    /**
+     * {@code GET /api/drivers/{id}/cars?fields=} lists the cars of a driver, projected with
+     * the car fields.
+     */
+    @Override
+    protected void getSubresource(HttpServletRequest req, HttpServletResponse resp, Long id,
+                                  String name) throws IOException {
+        if (!name.equals("cars")) {
+            super.getSubresource(req, resp, id, name);
+            return;
+        }
+        driverService.get(id);
+        FieldProjection fields = FieldProjection.parse(req.getParameter("fields"),
+                JsonViews.CAR_FIELDS);
+        List<Car> cars = carService.getAllByDriver(id);
+        JsonResponseUtil.send(req, resp, json -> {
+            json.beginObject().name("items").beginArray();
+            for (Car car : cars) {
+                JsonViews.writeCar(json, car, fields);
+            }
+            json.endArray().endObject();
+        });
+    }
+}
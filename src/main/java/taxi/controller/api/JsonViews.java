@@ -0,0 +1,76 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.Set;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.util.JsonWriter;
+import taxi.web.util.FieldProjection;
+
+/**
+ * JSON shapes shared by the API controllers. Nested manufacturers and drivers are always
+ * written in full; projection applies to the top level only. Logins and passwords are never
+ * written: a login is half of a driver's credentials.
+ */
+class JsonViews {
+    static final Set<String> CAR_FIELDS = Set.of("id", "model", "manufacturer", "drivers");
+    static final Set<String> DRIVER_FIELDS = Set.of("id", "name", "licenseNumber");
+    static final Set<String> MANUFACTURER_FIELDS = Set.of("id", "name", "country");
+    private static final FieldProjection ALL_DRIVER_FIELDS =
+            FieldProjection.parse(null, DRIVER_FIELDS);
+    private static final FieldProjection ALL_MANUFACTURER_FIELDS =
+            FieldProjection.parse(null, MANUFACTURER_FIELDS);
+
+    static void writeCar(JsonWriter json, Car car, FieldProjection fields) throws IOException {
+        json.beginObject();
+        if (fields.includes("id")) {
+            json.name("id").value(car.getId());
+        }
+        if (fields.includes("model")) {
+            json.name("model").value(car.getModel());
+        }
+        if (fields.includes("manufacturer")) {
+            json.name("manufacturer");
+            writeManufacturer(json, car.getManufacturer(), ALL_MANUFACTURER_FIELDS);
+        }
+        if (fields.includes("drivers")) {
+            json.name("drivers").beginArray();
+            for (Driver driver : car.getDrivers()) {
+                writeDriver(json, driver, ALL_DRIVER_FIELDS);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    static void writeDriver(JsonWriter json, Driver driver, FieldProjection fields)
+            throws IOException {
+        json.beginObject();
+        if (fields.includes("id")) {
+            json.name("id").value(driver.getId());
+        }
+        if (fields.includes("name")) {
+            json.name("name").value(driver.getName());
+        }
+        if (fields.includes("licenseNumber")) {
+            json.name("licenseNumber").value(driver.getLicenseNumber());
+        }
+        json.endObject();
+    }
+
+    static void writeManufacturer(JsonWriter json, Manufacturer manufacturer,
+                                  FieldProjection fields) throws IOException {
+        json.beginObject();
+        if (fields.includes("id")) {
+            json.name("id").value(manufacturer.getId());
+        }
+        if (fields.includes("name")) {
+            json.name("name").value(manufacturer.getName());
+        }
+        if (fields.includes("country")) {
+            json.name("country").value(manufacturer.getCountry());
+        }
+        json.endObject();
+    }
+}
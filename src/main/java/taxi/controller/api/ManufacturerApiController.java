@@ -0,0 +1,32 @@
+package taxi.controller.api;
+
+import java.io.IOException;
+import java.util.Set;
+import taxi.lib.Injector;
+import taxi.model.Manufacturer;
+import taxi.service.GenericService;
+import taxi.service.ManufacturerService;
+import taxi.util.JsonWriter;
+import taxi.web.util.FieldProjection;
+
+public class ManufacturerApiController extends AbstractApiController<Manufacturer> {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final ManufacturerService manufacturerService = (ManufacturerService) injector
+            .getInstance(ManufacturerService.class);
+
+    @Override
+    protected GenericService<Manufacturer> getService() {
+        return manufacturerService;
+    }
+
+    @Override
+    protected Set<String> getFieldNames() {
+        return JsonViews.MANUFACTURER_FIELDS;
+    }
+
+    @Override
+    protected void writeElement(JsonWriter json, Manufacturer manufacturer, FieldProjection fields)
+            throws IOException {
+        JsonViews.writeManufacturer(json, manufacturer, fields);
+    }
+}
@@ -0,0 +1,93 @@
+package taxi.controller.car;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.util.CsvUtil;
+import taxi.util.JsonWriter;
+
+public class ExportCarsController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final Logger logger = LogManager.getLogger(ExportCarsController.class);
+    private final CarService carService = (CarService) injector.getInstance(CarService.class);
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean json = "json".equalsIgnoreCase(req.getParameter("format"));
+        logger.info("Method doGet was called with params: json = {}", json);
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setContentType(json ? "application/x-ndjson" : "text/csv");
+        resp.setHeader("Content-Disposition",
+                "attachment; filename=\"cars." + (json ? "ndjson" : "csv") + "\"");
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8));
+        try {
+            if (!json) {
+                writer.write(CsvUtil.toCsvLine("id", "model", "manufacturer_id",
+                        "manufacturer_name", "manufacturer_country", "drivers"));
+                writer.write('\n');
+            }
+            carService.streamAll(car -> {
+                try {
+                    if (json) {
+                        writeJsonLine(writer, car);
+                    } else {
+                        writeCsvLine(writer, car);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            logger.error("Export of cars was interrupted, reason: {}", e.getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, Car car) throws IOException {
+        StringJoiner drivers = new StringJoiner(";");
+        for (Driver driver : car.getDrivers()) {
+            drivers.add(driver.getId() + ":" + driver.getName());
+        }
+        writer.write(CsvUtil.toCsvLine(car.getId(), car.getModel(),
+                car.getManufacturer().getId(), car.getManufacturer().getName(),
+                car.getManufacturer().getCountry(), drivers.toString()));
+        writer.write('\n');
+    }
+
+    private void writeJsonLine(Writer writer, Car car) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject()
+                .name("id").value(car.getId())
+                .name("model").value(car.getModel())
+                .name("manufacturer").beginObject()
+                .name("id").value(car.getManufacturer().getId())
+                .name("name").value(car.getManufacturer().getName())
+                .name("country").value(car.getManufacturer().getCountry())
+                .endObject()
+                .name("drivers").beginArray();
+        for (Driver driver : car.getDrivers()) {
+            json.beginObject()
+                    .name("id").value(driver.getId())
+                    .name("name").value(driver.getName())
+                    .name("licenseNumber").value(driver.getLicenseNumber())
+                    .endObject();
+        }
+        json.endArray().endObject();
+        writer.write('\n');
+    }
+}
@@ -1,16 +1,20 @@
 package taxi.controller.car;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.CollectionVersion;
 import taxi.lib.Injector;
 import taxi.model.Car;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.CarService;
+import taxi.web.util.ConditionalGetUtil;
+import taxi.web.util.PaginationUtil;
 
 public class GetAllCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -21,8 +25,15 @@ public class GetAllCarsController extends HttpServlet {
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.info("Method doGet was called");
-        List<Car> cars = carService.getAll();
-        req.setAttribute("cars", cars);
+        if (ConditionalGetUtil.isNotModified(req, resp, CollectionVersion.CARS,
+                CollectionVersion.DRIVERS, CollectionVersion.MANUFACTURERS)) {
+            return;
+        }
+        PageRequest pageRequest = PaginationUtil.parsePageRequest(req);
+        Page<Car> page = carService.getPage(pageRequest);
+        req.setAttribute("cars", page.getContent());
+        req.setAttribute("page", page);
+        req.setAttribute("pageRequest", pageRequest);
         req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
     }
 }
@@ -7,6 +7,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.exception.DuplicateDriverException;
 import taxi.lib.Injector;
 import taxi.model.Driver;
 import taxi.service.DriverService;
@@ -25,7 +26,8 @@ public class AddDriverController extends HttpServlet {
     }
 
     @Override
-    public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    public void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
         String name = req.getParameter("name");
         String licenseNumber = req.getParameter("license_number");
         String login = req.getParameter("login");
@@ -33,7 +35,14 @@ public class AddDriverController extends HttpServlet {
         logger.info("Method doPost was called with params: "
                 + "name = {}, licenseNumber = {}, login = {}", name, licenseNumber, login);
         Driver driver = new Driver(name, licenseNumber, login, password);
-        driverService.create(driver);
+        try {
+            driverService.create(driver);
+        } catch (DuplicateDriverException e) {
+            logger.warn("Driver wasn't added, reason: {}", e.getMessage());
+            req.setAttribute("errorMsg", e.getMessage());
+            doGet(req, resp);
+            return;
+        }
         resp.sendRedirect(req.getContextPath() + "/drivers/add");
     }
 }
@@ -0,0 +1,69 @@
+package taxi.controller.driver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+import taxi.service.DriverService;
+import taxi.util.CsvUtil;
+import taxi.util.JsonWriter;
+
+public class ExportDriversController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final Logger logger = LogManager.getLogger(ExportDriversController.class);
+    private final DriverService driverService = (DriverService) injector
+            .getInstance(DriverService.class);
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean json = "json".equalsIgnoreCase(req.getParameter("format"));
+        logger.info("Method doGet was called with params: json = {}", json);
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setContentType(json ? "application/x-ndjson" : "text/csv");
+        resp.setHeader("Content-Disposition",
+                "attachment; filename=\"drivers." + (json ? "ndjson" : "csv") + "\"");
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8));
+        try {
+            if (!json) {
+                writer.write(CsvUtil.toCsvLine("id", "name", "license_number"));
+                writer.write('\n');
+            }
+            driverService.streamAll(driver -> {
+                try {
+                    if (json) {
+                        writeJsonLine(writer, driver);
+                    } else {
+                        writer.write(CsvUtil.toCsvLine(driver.getId(), driver.getName(),
+                                driver.getLicenseNumber()));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            logger.error("Export of drivers was interrupted, reason: {}", e.getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeJsonLine(Writer writer, Driver driver) throws IOException {
+        new JsonWriter(writer).beginObject()
+                .name("id").value(driver.getId())
+                .name("name").value(driver.getName())
+                .name("licenseNumber").value(driver.getLicenseNumber())
+                .endObject();
+        writer.write('\n');
+    }
+}
@@ -1,16 +1,20 @@
 package taxi.controller.driver;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.CollectionVersion;
 import taxi.lib.Injector;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.DriverService;
+import taxi.web.util.ConditionalGetUtil;
+import taxi.web.util.PaginationUtil;
 
 public class GetAllDriversController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -22,8 +26,14 @@ public class GetAllDriversController extends HttpServlet {
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.info("Method doGet was called");
-        List<Driver> drivers = driverService.getAll();
-        req.setAttribute("drivers", drivers);
+        if (ConditionalGetUtil.isNotModified(req, resp, CollectionVersion.DRIVERS)) {
+            return;
+        }
+        PageRequest pageRequest = PaginationUtil.parsePageRequest(req);
+        Page<Driver> page = driverService.getPage(pageRequest);
+        req.setAttribute("drivers", page.getContent());
+        req.setAttribute("page", page);
+        req.setAttribute("pageRequest", pageRequest);
         req.getRequestDispatcher("/WEB-INF/views/drivers/all.jsp").forward(req, resp);
     }
 }
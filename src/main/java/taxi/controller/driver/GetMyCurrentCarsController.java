@@ -2,19 +2,16 @@ package taxi.controller.driver;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.lib.Injector;
 import taxi.model.Car;
-import taxi.model.Driver;
+import taxi.model.DriverPrincipal;
 import taxi.service.CarService;
-import taxi.service.DriverService;
 
 public class GetMyCurrentCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -22,19 +19,13 @@ public class GetMyCurrentCarsController extends HttpServlet {
             .getLogger(GetMyCurrentCarsController.class);
     private final CarService carService = (CarService) injector
             .getInstance(CarService.class);
-    private final DriverService driverService = (DriverService) injector
-            .getInstance(DriverService.class);
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.info("Method doGet was called");
-        HttpSession session = req.getSession();
-        Long driverId = (Long) session.getAttribute("driver_id");
-        Driver driver = driverService.get(driverId);
-        List<Car> cars = carService.getAll().stream()
-                .filter(c -> c.getDrivers().contains(driver))
-                .collect(Collectors.toList());
+        DriverPrincipal principal = (DriverPrincipal) req.getAttribute(DriverPrincipal.ATTRIBUTE);
+        List<Car> cars = carService.getAllByDriver(principal.getId());
         req.setAttribute("cars", cars);
         req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
     }
@@ -1,16 +1,20 @@
 package taxi.controller.manufacturer;
 
 import java.io.IOException;
-import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.CollectionVersion;
 import taxi.lib.Injector;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.ManufacturerService;
+import taxi.web.util.ConditionalGetUtil;
+import taxi.web.util.PaginationUtil;
 
 public class GetAllManufacturersController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
@@ -22,8 +26,14 @@ public class GetAllManufacturersController extends HttpServlet {
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         logger.info("Method doGet was called");
-        List<Manufacturer> manufacturers = manufacturerService.getAll();
-        req.setAttribute("manufacturers", manufacturers);
+        if (ConditionalGetUtil.isNotModified(req, resp, CollectionVersion.MANUFACTURERS)) {
+            return;
+        }
+        PageRequest pageRequest = PaginationUtil.parsePageRequest(req);
+        Page<Manufacturer> page = manufacturerService.getPage(pageRequest);
+        req.setAttribute("manufacturers", page.getContent());
+        req.setAttribute("page", page);
+        req.setAttribute("pageRequest", pageRequest);
         req.getRequestDispatcher("/WEB-INF/views/manufacturers/all.jsp").forward(req, resp);
     }
 }
@@ -1,8 +1,11 @@
 package taxi.dao;
 
 import java.util.List;
+import java.util.function.Consumer;
 import taxi.model.Car;
 
 public interface CarDao extends GenericDao<Car> {
     List<Car> getAllByDriver(Long driverId);
+
+    void streamAll(Consumer<Car> consumer);
 }
@@ -6,8 +6,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.DataProcessingException;
@@ -15,52 +22,106 @@ import taxi.lib.Dao;
 import taxi.model.Car;
 import taxi.model.Driver;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
 
 @Dao
 public class CarDaoImpl implements CarDao {
     private static final Logger logger = LogManager.getLogger(CarDaoImpl.class);
+    private static final int IN_QUERY_CHUNK_SIZE = 1000;
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final String SELECT_CARS = "SELECT c.id AS id, "
+            + "model, "
+            + "manufacturer_id, "
+            + "m.name AS manufacturer_name, "
+            + "m.country AS manufacturer_country "
+            + "FROM cars c"
+            + " JOIN manufacturers m ON c.manufacturer_id = m.id";
+    private static final String INSERT_QUERY = "INSERT INTO cars (model, manufacturer_id)"
+            + " VALUES (?, ?)";
+    private static final String GET_QUERY = SELECT_CARS
+            + " WHERE c.id = ? AND c.is_deleted = FALSE";
+    private static final String GET_ALL_QUERY = SELECT_CARS + " WHERE c.is_deleted = FALSE";
+    private static final String GET_PAGE_ASC_QUERY = SELECT_CARS
+            + " WHERE c.is_deleted = FALSE AND c.id > ? ORDER BY c.id LIMIT ?";
+    private static final String GET_PAGE_DESC_QUERY = SELECT_CARS
+            + " WHERE c.is_deleted = FALSE AND c.id < ? ORDER BY c.id DESC LIMIT ?";
+    private static final String GET_ALL_BY_IDS_QUERY_PREFIX = SELECT_CARS
+            + " WHERE c.is_deleted = FALSE AND c.id IN (";
+    private static final String GET_ALL_BY_DRIVER_QUERY = SELECT_CARS
+            + " JOIN cars_drivers cd ON c.id = cd.car_id"
+            + " JOIN drivers d ON cd.driver_id = d.id"
+            + " WHERE cd.driver_id = ? AND c.is_deleted = FALSE"
+            + " AND d.is_deleted = FALSE";
+    private static final String STREAM_ALL_QUERY = "SELECT c.id AS id, "
+            + "model, "
+            + "manufacturer_id, "
+            + "m.name AS manufacturer_name, "
+            + "m.country AS manufacturer_country, "
+            + "d.id AS driver_id, "
+            + "d.name AS driver_name, "
+            + "d.license_number AS driver_license_number, "
+            + "d.login AS driver_login, "
+            + "d.password AS driver_password "
+            + "FROM cars c"
+            + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+            + " LEFT JOIN cars_drivers cd ON c.id = cd.car_id"
+            + " LEFT JOIN drivers d ON cd.driver_id = d.id AND d.is_deleted = FALSE"
+            + " WHERE c.is_deleted = FALSE"
+            + " ORDER BY c.id";
+    private static final String UPDATE_QUERY = "UPDATE cars SET model = ?, manufacturer_id = ?"
+            + " WHERE id = ? AND is_deleted = FALSE";
+    private static final String DELETE_QUERY = "UPDATE cars SET is_deleted = TRUE WHERE id = ?"
+            + " AND is_deleted = FALSE";
+    private static final String DELETE_ALL_QUERY_PREFIX = "UPDATE cars SET is_deleted = TRUE"
+            + " WHERE is_deleted = FALSE AND id IN (";
+    private static final String GET_ASSIGNED_DRIVER_IDS_QUERY_PREFIX = "SELECT car_id, driver_id"
+            + " FROM cars_drivers WHERE car_id IN (";
+    private static final String GET_ASSIGNED_DRIVER_IDS_QUERY_SUFFIX = ") FOR UPDATE";
+    private static final String INSERT_DRIVER_QUERY = "INSERT INTO cars_drivers (car_id, driver_id)"
+            + " VALUES (?, ?)";
+    private static final String DELETE_DRIVER_QUERY = "DELETE FROM cars_drivers"
+            + " WHERE car_id = ? AND driver_id = ?";
+    private static final String GET_DRIVERS_BY_CAR_IDS_QUERY_PREFIX = "SELECT cd.car_id, id, "
+            + "name, license_number, login, password "
+            + "FROM cars_drivers cd "
+            + "JOIN drivers d ON cd.driver_id = d.id "
+            + "WHERE is_deleted = FALSE AND cd.car_id IN (";
 
     @Override
     public Car create(Car car) {
         logger.info("Method create was called with params: car = {}", car);
-        String query = "INSERT INTO cars (model, manufacturer_id)"
-                + "VALUES (?, ?)";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(
-                             query, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
-            statement.executeUpdate();
-            ResultSet resultSet = statement.getGeneratedKeys();
-            if (resultSet.next()) {
-                car.setId(resultSet.getObject(1, Long.class));
+        return TransactionManager.inTransaction(() -> {
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(
+                                 INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().getId());
+                statement.executeUpdate();
+                ResultSet resultSet = statement.getGeneratedKeys();
+                if (resultSet.next()) {
+                    car.setId(resultSet.getObject(1, Long.class));
+                }
+            } catch (SQLException e) {
+                logger.error("Can't create car {}, reason: {}", car, e.getMessage());
+                throw new DataProcessingException("Can't create car " + car, e);
             }
-        } catch (SQLException e) {
-            logger.error("Can't create car {}, reason: {}", car, e.getMessage());
-            throw new DataProcessingException("Can't create car " + car, e);
-        }
-        insertAllDrivers(car);
-        logger.debug("Method create was accomplished. Value of car = {}", car);
-        return car;
+            insertDrivers(Map.of(car.getId(), getDriverIds(car)));
+            logger.debug("Method create was accomplished. Value of car = {}", car);
+            return car;
+        });
     }
 
     @Override
     public Optional<Car> get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        String query = "SELECT c.id AS id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name AS manufacturer_name, "
-                + "m.country AS manufacturer_country "
-                + "FROM cars c "
-                + "JOIN manufacturers m ON c.manufacturer_id = m.id "
-                + "WHERE c.id = ? AND c.is_deleted = FALSE";
         Car car = null;
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
-                        connection.prepareStatement(query)) {
+                        connection.prepareStatement(GET_QUERY)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
@@ -71,7 +132,7 @@ public class CarDaoImpl implements CarDao {
             throw new DataProcessingException("Can't get car by id: " + id, e);
         }
         if (car != null) {
-            car.setDrivers(getAllDriversByCarId(car.getId()));
+            setDriversToCars(List.of(car));
         }
         logger.debug("Method get was accomplished.");
         return Optional.ofNullable(car);
@@ -80,18 +141,10 @@ public class CarDaoImpl implements CarDao {
     @Override
     public List<Car> getAll() {
         logger.info("Method getAll was called");
-        String query = "SELECT c.id AS id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name AS manufacturer_name, "
-                + "m.country AS manufacturer_country "
-                + "FROM cars c"
-                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
-                + " WHERE c.is_deleted = FALSE";
         List<Car> cars = new ArrayList<>();
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
-                        connection.prepareStatement(query)) {
+                        connection.prepareStatement(GET_ALL_QUERY)) {
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 cars.add(parseCarFromResultSet(resultSet));
@@ -100,41 +153,62 @@ public class CarDaoImpl implements CarDao {
             logger.error("Can't get all cars, reason: {}", e.getMessage());
             throw new DataProcessingException("Can't get all cars", e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
+        setDriversToCars(cars);
         logger.debug("Method getAll was accomplished.");
         return cars;
     }
 
     @Override
-    public Car update(Car car) {
-        logger.info("Method update was called with params: car = {}", car);
-        String query = "UPDATE cars SET model = ?, manufacturer_id = ? WHERE id = ?"
-                + " AND is_deleted = FALSE";
+    public Page<Car> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        String query = pageRequest.isDescending() ? GET_PAGE_DESC_QUERY : GET_PAGE_ASC_QUERY;
+        List<Car> cars = new ArrayList<>();
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
-            statement.setLong(3, car.getId());
-            statement.executeUpdate();
+            statement.setLong(1, pageRequest.getCursorBoundary());
+            statement.setInt(2, pageRequest.getSize() + 1);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                cars.add(parseCarFromResultSet(resultSet));
+            }
         } catch (SQLException e) {
-            logger.error("Can't update car {}, reason: {}", car, e.getMessage());
-            throw new DataProcessingException("Can't update car " + car, e);
+            logger.error("Can't get page of cars {}, reason: {}", pageRequest, e.getMessage());
+            throw new DataProcessingException("Can't get page of cars " + pageRequest, e);
         }
-        deleteAllDrivers(car);
-        insertAllDrivers(car);
-        logger.debug("Method update was accomplished.");
-        return car;
+        Page<Car> page = Page.of(cars, pageRequest.getSize(), Car::getId);
+        setDriversToCars(page.getContent());
+        logger.debug("Method getPage was accomplished.");
+        return page;
+    }
+
+    @Override
+    public Car update(Car car) {
+        logger.info("Method update was called with params: car = {}", car);
+        return TransactionManager.inTransaction(() -> {
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(UPDATE_QUERY)) {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().getId());
+                statement.setLong(3, car.getId());
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                logger.error("Can't update car {}, reason: {}", car, e.getMessage());
+                throw new DataProcessingException("Can't update car " + car, e);
+            }
+            updateDrivers(List.of(car));
+            logger.debug("Method update was accomplished.");
+            return car;
+        });
     }
 
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        String query = "UPDATE cars SET is_deleted = TRUE WHERE id = ?"
-                + " AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
-                        connection.prepareStatement(query)) {
+                        connection.prepareStatement(DELETE_QUERY)) {
             statement.setLong(1, id);
             boolean isDeleted = statement.executeUpdate() > 0;
             logger.debug("Method delete was accomplished. isDeleted = {}", isDeleted);
@@ -148,21 +222,10 @@ public class CarDaoImpl implements CarDao {
     @Override
     public List<Car> getAllByDriver(Long driverId) {
         logger.info("Method getAllByDriver was called with params: driverId = {}", driverId);
-        String query = "SELECT c.id AS id, "
-                + "model, "
-                + "manufacturer_id, "
-                + "m.name AS manufacturer_name, "
-                + "m.country AS manufacturer_country "
-                + "FROM cars c"
-                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
-                + " JOIN cars_drivers cd ON c.id = cd.car_id"
-                + " JOIN drivers d ON cd.driver_id = d.id"
-                + " WHERE c.is_deleted = FALSE AND driver_id = ?"
-                + " AND d.is_deleted = FALSE";
         List<Car> cars = new ArrayList<>();
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
-                        connection.prepareStatement(query)) {
+                        connection.prepareStatement(GET_ALL_BY_DRIVER_QUERY)) {
             statement.setLong(1, driverId);
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
@@ -174,74 +237,315 @@ public class CarDaoImpl implements CarDao {
             throw new DataProcessingException("Can't get all cars for driver with id: "
                     + driverId, e);
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
+        setDriversToCars(cars);
         logger.debug("Method getAllByDriver was accomplished.");
         return cars;
     }
 
-    private void insertAllDrivers(Car car) {
-        logger.info("Method insertAllDrivers was called with params: car = {}", car);
-        List<Driver> drivers = car.getDrivers();
-        if (drivers.size() == 0) {
+    @Override
+    public void streamAll(Consumer<Car> consumer) {
+        logger.info("Method streamAll was called");
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(STREAM_ALL_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(STREAMING_FETCH_SIZE);
+            ResultSet resultSet = statement.executeQuery();
+            Car current = null;
+            while (resultSet.next()) {
+                Long carId = resultSet.getObject("id", Long.class);
+                if (current == null || !current.getId().equals(carId)) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = parseCarFromResultSet(resultSet);
+                    current.setDrivers(new ArrayList<>());
+                }
+                Long driverId = resultSet.getObject("driver_id", Long.class);
+                if (driverId != null) {
+                    Driver driver = new Driver(resultSet.getString("driver_name"),
+                            resultSet.getString("driver_license_number"),
+                            resultSet.getString("driver_login"),
+                            resultSet.getString("driver_password"));
+                    driver.setId(driverId);
+                    current.getDrivers().add(driver);
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        } catch (SQLException e) {
+            logger.error("Can't stream all cars, reason: {}", e.getMessage());
+            throw new DataProcessingException("Can't stream all cars", e);
+        }
+        logger.debug("Method streamAll was accomplished.");
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        logger.info("Method createAll was called with params: cars count = {}", cars.size());
+        if (cars.isEmpty()) {
+            return cars;
+        }
+        return TransactionManager.inTransaction(() -> {
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(
+                                 INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+                for (Car car : cars) {
+                    statement.setString(1, car.getModel());
+                    statement.setLong(2, car.getManufacturer().getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                ResultSet resultSet = statement.getGeneratedKeys();
+                for (Car car : cars) {
+                    if (resultSet.next()) {
+                        car.setId(resultSet.getObject(1, Long.class));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Can't create {} cars, reason: {}", cars.size(), e.getMessage());
+                throw new DataProcessingException("Can't create " + cars.size() + " cars", e);
+            }
+            insertDrivers(getDriverIdsByCarId(cars));
+            logger.debug("Method createAll was accomplished.");
+            return cars;
+        });
+    }
+
+    @Override
+    public List<Car> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Car> carsById = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+            String query = GET_ALL_BY_IDS_QUERY_PREFIX + InClause.placeholders(chunk.size())
+                    + ")";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(query)) {
+                InClause.bind(statement, 1, chunk);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    Car car = parseCarFromResultSet(resultSet);
+                    carsById.put(car.getId(), car);
+                }
+            } catch (SQLException e) {
+                logger.error("Can't get cars by ids {}, reason: {}", chunk, e.getMessage());
+                throw new DataProcessingException("Can't get cars by ids " + chunk, e);
+            }
+        }
+        List<Car> cars = new ArrayList<>(carsById.size());
+        for (Long id : idList) {
+            Car car = carsById.get(id);
+            if (car != null) {
+                cars.add(car);
+            }
+        }
+        setDriversToCars(cars);
+        logger.debug("Method getAllByIds was accomplished.");
+        return cars;
+    }
+
+    @Override
+    public List<Car> updateAll(List<Car> cars) {
+        logger.info("Method updateAll was called with params: cars count = {}", cars.size());
+        if (cars.isEmpty()) {
+            return cars;
+        }
+        return TransactionManager.inTransaction(() -> {
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(UPDATE_QUERY)) {
+                for (Car car : cars) {
+                    statement.setString(1, car.getModel());
+                    statement.setLong(2, car.getManufacturer().getId());
+                    statement.setLong(3, car.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                logger.error("Can't update {} cars, reason: {}", cars.size(), e.getMessage());
+                throw new DataProcessingException("Can't update " + cars.size() + " cars", e);
+            }
+            updateDrivers(cars);
+            logger.debug("Method updateAll was accomplished.");
+            return cars;
+        });
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = TransactionManager.inTransaction(() -> {
+            int count = 0;
+            for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+                List<Long> chunk = idList.subList(from,
+                        Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+                count += softDelete(chunk);
+            }
+            return count;
+        });
+        logger.debug("Method deleteAll was accomplished. deleted = {}", deleted);
+        return deleted;
+    }
+
+    private void updateDrivers(List<Car> cars) {
+        List<Long> carIds = new ArrayList<>(cars.size());
+        cars.forEach(car -> carIds.add(car.getId()));
+        Map<Long, Set<Long>> assignedDriverIds = getAssignedDriverIds(carIds);
+        Map<Long, Set<Long>> removedDriverIds = new LinkedHashMap<>();
+        Map<Long, Set<Long>> addedDriverIds = new LinkedHashMap<>();
+        for (Car car : cars) {
+            Set<Long> assigned = assignedDriverIds.getOrDefault(car.getId(), Set.of());
+            Set<Long> driverIds = getDriverIds(car);
+            Set<Long> removed = new LinkedHashSet<>(assigned);
+            removed.removeAll(driverIds);
+            Set<Long> added = new LinkedHashSet<>(driverIds);
+            added.removeAll(assigned);
+            removedDriverIds.put(car.getId(), removed);
+            addedDriverIds.put(car.getId(), added);
+        }
+        deleteDrivers(removedDriverIds);
+        insertDrivers(addedDriverIds);
+    }
+
+    private Map<Long, Set<Long>> getDriverIdsByCarId(List<Car> cars) {
+        Map<Long, Set<Long>> driverIdsByCarId = new LinkedHashMap<>();
+        cars.forEach(car -> driverIdsByCarId.put(car.getId(), getDriverIds(car)));
+        return driverIdsByCarId;
+    }
+
+    private Set<Long> getDriverIds(Car car) {
+        Set<Long> driverIds = new LinkedHashSet<>();
+        if (car.getDrivers() != null) {
+            car.getDrivers().forEach(driver -> driverIds.add(driver.getId()));
+        }
+        return driverIds;
+    }
+
+    private Map<Long, Set<Long>> getAssignedDriverIds(List<Long> carIds) {
+        logger.info("Method getAssignedDriverIds was called with params: carIds = {}", carIds);
+        Map<Long, Set<Long>> driverIdsByCarId = new HashMap<>();
+        for (int from = 0; from < carIds.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = carIds.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, carIds.size()));
+            String query = GET_ASSIGNED_DRIVER_IDS_QUERY_PREFIX
+                    + InClause.placeholders(chunk.size()) + GET_ASSIGNED_DRIVER_IDS_QUERY_SUFFIX;
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement =
+                            connection.prepareStatement(query)) {
+                InClause.bind(statement, 1, chunk);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    driverIdsByCarId.computeIfAbsent(resultSet.getObject("car_id", Long.class),
+                            carId -> new LinkedHashSet<>())
+                            .add(resultSet.getObject("driver_id", Long.class));
+                }
+            } catch (SQLException e) {
+                logger.error("Can't get driver ids of cars {}, reason: {}",
+                        chunk, e.getMessage());
+                throw new DataProcessingException("Can't get driver ids of cars with ids: "
+                        + chunk, e);
+            }
+        }
+        logger.debug("Method getAssignedDriverIds was accomplished.");
+        return driverIdsByCarId;
+    }
+
+    private void insertDrivers(Map<Long, Set<Long>> driverIdsByCarId) {
+        logger.info("Method insertDrivers was called with params: driverIdsByCarId = {}",
+                driverIdsByCarId);
+        executeDriversBatch(INSERT_DRIVER_QUERY, driverIdsByCarId);
+        logger.debug("Method insertDrivers was accomplished.");
+    }
+
+    private void deleteDrivers(Map<Long, Set<Long>> driverIdsByCarId) {
+        logger.info("Method deleteDrivers was called with params: driverIdsByCarId = {}",
+                driverIdsByCarId);
+        executeDriversBatch(DELETE_DRIVER_QUERY, driverIdsByCarId);
+        logger.debug("Method deleteDrivers was accomplished.");
+    }
+
+    private void executeDriversBatch(String query, Map<Long, Set<Long>> driverIdsByCarId) {
+        if (driverIdsByCarId.values().stream().allMatch(Set::isEmpty)) {
             return;
         }
-        String query = "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            statement.setLong(1, car.getId());
-            for (Driver driver : drivers) {
-                statement.setLong(2, driver.getId());
-                statement.executeUpdate();
+            for (Map.Entry<Long, Set<Long>> entry : driverIdsByCarId.entrySet()) {
+                for (Long driverId : entry.getValue()) {
+                    statement.setLong(1, entry.getKey());
+                    statement.setLong(2, driverId);
+                    statement.addBatch();
+                }
             }
+            statement.executeBatch();
         } catch (SQLException e) {
-            logger.error("Can't insert drivers to car {}, reason: {}", car, e.getMessage());
-            throw new DataProcessingException("Can't insert drivers " + drivers, e);
+            logger.error("Can't update drivers {} of cars, reason: {}",
+                    driverIdsByCarId, e.getMessage());
+            throw new DataProcessingException("Can't update drivers " + driverIdsByCarId
+                    + " of cars", e);
         }
-        logger.debug("Method insertAllDrivers was accomplished.");
     }
 
-    private void deleteAllDrivers(Car car) {
-        logger.info("Method deleteAllDrivers was called with params: car = {}", car);
-        String query = "DELETE FROM cars_drivers WHERE car_id = ?";
+    private void setDriversToCars(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Driver>> driversByCarId = new HashMap<>();
+        for (Car car : cars) {
+            driversByCarId.put(car.getId(), new ArrayList<>());
+        }
+        List<Long> carIds = new ArrayList<>(driversByCarId.keySet());
+        for (int from = 0; from < carIds.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = carIds.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, carIds.size()));
+            loadDriversByCarIds(chunk, driversByCarId);
+        }
+        cars.forEach(car -> car.setDrivers(driversByCarId.get(car.getId())));
+    }
+
+    private void loadDriversByCarIds(List<Long> carIds, Map<Long, List<Driver>> driversByCarId) {
+        logger.info("Method loadDriversByCarIds was called with params: carIds = {}", carIds);
+        String query = GET_DRIVERS_BY_CAR_IDS_QUERY_PREFIX
+                + InClause.placeholders(carIds.size()) + ")";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            statement.setLong(1, car.getId());
-            statement.executeUpdate();
+            InClause.bind(statement, 1, carIds);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                Long carId = resultSet.getObject("car_id", Long.class);
+                driversByCarId.get(carId).add(parseDriverFromResultSet(resultSet));
+            }
+            logger.debug("Method loadDriversByCarIds was accomplished.");
         } catch (SQLException e) {
-            logger.error("Can't delete all drivers from car {}, reason: {}", car, e.getMessage());
-            throw new DataProcessingException("Can't delete drivers " + car.getDrivers()
-                    + " of car with id: " + car.getId(), e);
+            logger.error("Can't get all drivers by car ids {}, reason: {}",
+                    carIds, e.getMessage());
+            throw new DataProcessingException("Can't get all drivers by car ids " + carIds, e);
         }
-        logger.debug("Method deleteAllDrivers was accomplished.");
     }
 
-    private List<Driver> getAllDriversByCarId(Long carId) {
-        logger.info("Method getAllDriversByCarId was called with params: carId = {}", carId);
-        String query = "SELECT id, name, license_number, login, password "
-                + "FROM cars_drivers cd "
-                + "JOIN drivers d ON cd.driver_id = d.id "
-                + "WHERE car_id = ? AND is_deleted = false";
+    private int softDelete(List<Long> ids) {
+        String query = DELETE_ALL_QUERY_PREFIX + InClause.placeholders(ids.size()) + ")";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            statement.setLong(1, carId);
-            ResultSet resultSet = statement.executeQuery();
-            List<Driver> drivers = new ArrayList<>();
-            while (resultSet.next()) {
-                drivers.add(parseDriverFromResultSet(resultSet));
-            }
-            logger.debug("Method getAllDriversByCarId was accomplished.");
-            return drivers;
+            InClause.bind(statement, 1, ids);
+            return statement.executeUpdate();
         } catch (SQLException e) {
-            logger.error("Can't get all drivers by car id {}, reason: {}", carId, e.getMessage());
-            throw new DataProcessingException("Can't get all drivers by car id" + carId, e);
+            logger.error("Can't delete cars by ids {}, reason: {}", ids, e.getMessage());
+            throw new DataProcessingException("Can't delete cars by ids " + ids, e);
         }
     }
 
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.info("Method parseDriverFromResultSet was called");
+        logger.trace("Method parseDriverFromResultSet was called");
         Long driverId = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String licenseNumber = resultSet.getString("license_number");
@@ -253,12 +557,12 @@ public class CarDaoImpl implements CarDao {
         driver.setLicenseNumber(licenseNumber);
         driver.setLogin(login);
         driver.setPassword(password);
-        logger.debug("Method parseDriverFromResultSet was accomplished.");
+        logger.trace("Method parseDriverFromResultSet was accomplished.");
         return driver;
     }
 
     private Car parseCarFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.info("Method parseCarFromResultSet was called");
+        logger.trace("Method parseCarFromResultSet was called");
         Long manufacturerId = resultSet.getObject("manufacturer_id", Long.class);
         String manufacturerName = resultSet.getString("manufacturer_name");
         String manufacturerCountry = resultSet.getString("manufacturer_country");
@@ -272,7 +576,7 @@ public class CarDaoImpl implements CarDao {
         car.setId(carId);
         car.setModel(model);
         car.setManufacturer(manufacturer);
-        logger.debug("Method parseCarFromResultSet was accomplished.");
+        logger.trace("Method parseCarFromResultSet was accomplished.");
         return car;
     }
 }
@@ -1,8 +1,25 @@
 package taxi.dao;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import taxi.model.Driver;
 
 public interface DriverDao extends GenericDao<Driver> {
     Optional<Driver> findByLogin(String login);
+
+    /**
+     * Reads only id, login and password of a live driver, served from the unique index
+     * on login. The other fields of the returned driver are null.
+     */
+    Optional<Driver> findCredentialsByLogin(String login);
+
+    boolean updatePassword(Long id, String password);
+
+    void streamAll(Consumer<Driver> consumer);
+
+    Set<String> findExistingLogins(Collection<String> logins);
+
+    Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers);
 }
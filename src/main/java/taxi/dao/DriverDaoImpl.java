@@ -6,26 +6,61 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
 
 @Dao
 public class DriverDaoImpl implements DriverDao {
     private static final Logger logger = LogManager.getLogger(DriverDaoImpl.class);
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int IN_QUERY_CHUNK_SIZE = 1000;
+    private static final String INSERT_QUERY = "INSERT INTO drivers "
+            + "(name, license_number, login, password) VALUES (?, ?, ?, ?)";
+    private static final String GET_QUERY = "SELECT * FROM drivers "
+            + "WHERE id = ? AND is_deleted = FALSE";
+    private static final String GET_ALL_QUERY = "SELECT * FROM drivers WHERE is_deleted = FALSE";
+    private static final String GET_PAGE_ASC_QUERY = "SELECT * FROM drivers "
+            + "WHERE is_deleted = FALSE AND id > ? ORDER BY id LIMIT ?";
+    private static final String GET_PAGE_DESC_QUERY = "SELECT * FROM drivers "
+            + "WHERE is_deleted = FALSE AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String GET_ALL_BY_IDS_QUERY_PREFIX = "SELECT * FROM drivers "
+            + "WHERE is_deleted = FALSE AND id IN (";
+    private static final String UPDATE_QUERY = "UPDATE drivers "
+            + "SET name = ?, license_number = ?, login = ?, password = ? "
+            + "WHERE id = ? AND is_deleted = FALSE";
+    private static final String DELETE_QUERY = "UPDATE drivers SET is_deleted = TRUE WHERE id = ?";
+    private static final String DELETE_ALL_QUERY_PREFIX = "UPDATE drivers SET is_deleted = TRUE "
+            + "WHERE is_deleted = FALSE AND id IN (";
+    private static final String FIND_BY_LOGIN_QUERY = "SELECT * FROM drivers "
+            + "WHERE login = ? AND is_deleted = FALSE";
+    private static final String FIND_CREDENTIALS_BY_LOGIN_QUERY = "SELECT id, login, password "
+            + "FROM drivers WHERE login = ? AND is_deleted = FALSE";
+    private static final String UPDATE_PASSWORD_QUERY = "UPDATE drivers SET password = ? "
+            + "WHERE id = ? AND is_deleted = FALSE";
+    private static final String STREAM_ALL_QUERY = "SELECT * FROM drivers "
+            + "WHERE is_deleted = FALSE ORDER BY id";
 
     @Override
     public Driver create(Driver driver) {
         logger.info("Method create was called with params: driver = {}", driver);
-        String query = "INSERT INTO drivers (name, license_number, login, password) "
-                + "VALUES (?, ?, ?, ?)";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query,
+                PreparedStatement statement = connection.prepareStatement(INSERT_QUERY,
                         Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, driver.getName());
             statement.setString(2, driver.getLicenseNumber());
@@ -47,9 +82,8 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public Optional<Driver> get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        String query = "SELECT * FROM drivers WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(GET_QUERY)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             Driver driver = null;
@@ -67,10 +101,9 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public List<Driver> getAll() {
         logger.info("Method getAll was called");
-        String query = "SELECT * FROM drivers WHERE is_deleted = FALSE";
         List<Driver> drivers = new ArrayList<>();
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(GET_ALL_QUERY)) {
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 drivers.add(parseDriverFromResultSet(resultSet));
@@ -83,14 +116,32 @@ public class DriverDaoImpl implements DriverDao {
         }
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        String query = pageRequest.isDescending() ? GET_PAGE_DESC_QUERY : GET_PAGE_ASC_QUERY;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, pageRequest.getCursorBoundary());
+            statement.setInt(2, pageRequest.getSize() + 1);
+            List<Driver> drivers = new ArrayList<>();
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                drivers.add(parseDriverFromResultSet(resultSet));
+            }
+            logger.debug("Method getPage was accomplished.");
+            return Page.of(drivers, pageRequest.getSize(), Driver::getId);
+        } catch (SQLException e) {
+            logger.error("Can't get page of drivers {}, reason: {}", pageRequest, e.getMessage());
+            throw new DataProcessingException("Can't get page of drivers " + pageRequest, e);
+        }
+    }
+
     @Override
     public Driver update(Driver driver) {
         logger.info("Method update was called with params: driver = {}", driver);
-        String query = "UPDATE drivers "
-                + "SET name = ?, license_number = ?, login = ?, password = ? "
-                + "WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(UPDATE_QUERY)) {
             statement.setString(1, driver.getName());
             statement.setString(2, driver.getLicenseNumber());
             statement.setString(3, driver.getLogin());
@@ -108,9 +159,8 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        String query = "UPDATE drivers SET is_deleted = TRUE WHERE id = ?";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(DELETE_QUERY)) {
             statement.setLong(1, id);
             boolean isDeleted = statement.executeUpdate() > 0;
             logger.debug("Method delete was accomplished. isDeleted = {}", isDeleted);
@@ -124,9 +174,8 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public Optional<Driver> findByLogin(String login) {
         logger.info("Method findByLogin was called with params: login = {}", login);
-        String query = "SELECT * FROM drivers WHERE login = ? AND is_deleted = FALSE;";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(FIND_BY_LOGIN_QUERY)) {
             statement.setString(1, login);
             ResultSet resultSet = statement.executeQuery();
             Driver driver = null;
@@ -141,8 +190,225 @@ public class DriverDaoImpl implements DriverDao {
         }
     }
 
+    @Override
+    public Optional<Driver> findCredentialsByLogin(String login) {
+        logger.info("Method findCredentialsByLogin was called with params: login = {}", login);
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement(FIND_CREDENTIALS_BY_LOGIN_QUERY)) {
+            statement.setString(1, login);
+            ResultSet resultSet = statement.executeQuery();
+            Driver driver = null;
+            if (resultSet.next()) {
+                driver = new Driver();
+                driver.setId(resultSet.getObject("id", Long.class));
+                driver.setLogin(resultSet.getString("login"));
+                driver.setPassword(resultSet.getString("password"));
+            }
+            logger.debug("Method findCredentialsByLogin was accomplished");
+            return Optional.ofNullable(driver);
+        } catch (SQLException e) {
+            logger.error("Can't get credentials by login {}, reason: {}", login, e.getMessage());
+            throw new DataProcessingException("Can't get credentials by login " + login, e);
+        }
+    }
+
+    @Override
+    public boolean updatePassword(Long id, String password) {
+        logger.info("Method updatePassword was called with params: id = {}", id);
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(UPDATE_PASSWORD_QUERY)) {
+            statement.setString(1, password);
+            statement.setLong(2, id);
+            boolean isUpdated = statement.executeUpdate() > 0;
+            logger.debug("Method updatePassword was accomplished. isUpdated = {}", isUpdated);
+            return isUpdated;
+        } catch (SQLException e) {
+            logger.error("Can't update password of driver {}, reason: {}", id, e.getMessage());
+            throw new DataProcessingException("Can't update password of driver " + id, e);
+        }
+    }
+
+    @Override
+    public void streamAll(Consumer<Driver> consumer) {
+        logger.info("Method streamAll was called");
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(STREAM_ALL_QUERY,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(STREAMING_FETCH_SIZE);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                consumer.accept(parseDriverFromResultSet(resultSet));
+            }
+            logger.debug("Method streamAll was accomplished.");
+        } catch (SQLException e) {
+            logger.error("Can't stream all drivers, reason: {}", e.getMessage());
+            throw new DataProcessingException("Can't stream all drivers", e);
+        }
+    }
+
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        logger.info("Method createAll was called with params: drivers count = {}",
+                drivers.size());
+        if (drivers.isEmpty()) {
+            return drivers;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(INSERT_QUERY,
+                        Statement.RETURN_GENERATED_KEYS)) {
+            for (Driver driver : drivers) {
+                statement.setString(1, driver.getName());
+                statement.setString(2, driver.getLicenseNumber());
+                statement.setString(3, driver.getLogin());
+                statement.setString(4, driver.getPassword());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            ResultSet resultSet = statement.getGeneratedKeys();
+            for (Driver driver : drivers) {
+                if (resultSet.next()) {
+                    driver.setId(resultSet.getObject(1, Long.class));
+                }
+            }
+            logger.debug("Method createAll was accomplished.");
+            return drivers;
+        } catch (SQLException e) {
+            logger.error("Can't create {} drivers, reason: {}", drivers.size(), e.getMessage());
+            throw new DataProcessingException("Can't create " + drivers.size() + " drivers", e);
+        }
+    }
+
+    @Override
+    public List<Driver> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Driver> driversById = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+            String query = GET_ALL_BY_IDS_QUERY_PREFIX + InClause.placeholders(chunk.size())
+                    + ")";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(query)) {
+                InClause.bind(statement, 1, chunk);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    Driver driver = parseDriverFromResultSet(resultSet);
+                    driversById.put(driver.getId(), driver);
+                }
+            } catch (SQLException e) {
+                logger.error("Can't get drivers by ids {}, reason: {}", chunk, e.getMessage());
+                throw new DataProcessingException("Can't get drivers by ids " + chunk, e);
+            }
+        }
+        List<Driver> drivers = new ArrayList<>(driversById.size());
+        for (Long id : idList) {
+            Driver driver = driversById.get(id);
+            if (driver != null) {
+                drivers.add(driver);
+            }
+        }
+        logger.debug("Method getAllByIds was accomplished.");
+        return drivers;
+    }
+
+    @Override
+    public List<Driver> updateAll(List<Driver> drivers) {
+        logger.info("Method updateAll was called with params: drivers count = {}",
+                drivers.size());
+        if (drivers.isEmpty()) {
+            return drivers;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(UPDATE_QUERY)) {
+            for (Driver driver : drivers) {
+                statement.setString(1, driver.getName());
+                statement.setString(2, driver.getLicenseNumber());
+                statement.setString(3, driver.getLogin());
+                statement.setString(4, driver.getPassword());
+                statement.setLong(5, driver.getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            logger.debug("Method updateAll was accomplished.");
+            return drivers;
+        } catch (SQLException e) {
+            logger.error("Can't update {} drivers, reason: {}", drivers.size(), e.getMessage());
+            throw new DataProcessingException("Can't update " + drivers.size() + " drivers", e);
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = TransactionManager.inTransaction(() -> {
+            int count = 0;
+            for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+                List<Long> chunk = idList.subList(from,
+                        Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+                count += softDelete(chunk);
+            }
+            return count;
+        });
+        logger.debug("Method deleteAll was accomplished. deleted = {}", deleted);
+        return deleted;
+    }
+
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        logger.info("Method findExistingLogins was called with params: logins count = {}",
+                logins.size());
+        return findExistingValues("login", logins);
+    }
+
+    @Override
+    public Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) {
+        logger.info("Method findExistingLicenseNumbers was called with params: "
+                + "licenseNumbers count = {}", licenseNumbers.size());
+        return findExistingValues("license_number", licenseNumbers);
+    }
+
+    private Set<String> findExistingValues(String column, Collection<String> values) {
+        Set<String> existing = new HashSet<>();
+        List<String> valueList = new ArrayList<>(values);
+        for (int from = 0; from < valueList.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<String> chunk = valueList.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, valueList.size()));
+            String query = "SELECT " + column + " FROM drivers WHERE " + column + " IN ("
+                    + InClause.placeholders(chunk.size()) + ")";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(query)) {
+                InClause.bind(statement, 1, chunk);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    existing.add(resultSet.getString(column));
+                }
+            } catch (SQLException e) {
+                logger.error("Can't check existing drivers by {}, reason: {}",
+                        column, e.getMessage());
+                throw new DataProcessingException("Can't check existing drivers by "
+                        + column, e);
+            }
+        }
+        return existing;
+    }
+
+    private int softDelete(List<Long> ids) {
+        String query = DELETE_ALL_QUERY_PREFIX + InClause.placeholders(ids.size()) + ")";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            InClause.bind(statement, 1, ids);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Can't delete drivers by ids {}, reason: {}", ids, e.getMessage());
+            throw new DataProcessingException("Can't delete drivers by ids " + ids, e);
+        }
+    }
+
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.info("Method parseDriverFromResultSet was called");
+        logger.trace("Method parseDriverFromResultSet was called");
         Long id = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String licenseNumber = resultSet.getString("license_number");
@@ -154,7 +420,7 @@ public class DriverDaoImpl implements DriverDao {
         driver.setLicenseNumber(licenseNumber);
         driver.setLogin(login);
         driver.setPassword(password);
-        logger.debug("Method parseDriverFromResultSet was accomplished.");
+        logger.trace("Method parseDriverFromResultSet was accomplished.");
         return driver;
     }
 }
@@ -1,16 +1,29 @@
 package taxi.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface GenericDao<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     Optional<T> get(Long id);
 
+    List<T> getAllByIds(Collection<Long> ids);
+
     List<T> getAll();
 
+    Page<T> getPage(PageRequest pageRequest);
+
     T update(T element);
 
+    List<T> updateAll(List<T> elements);
+
     boolean delete(Long id);
+
+    int deleteAll(Collection<Long> ids);
 }
@@ -0,0 +1,34 @@
+package taxi.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds {@code IN (...)} lists for chunked queries. The number of placeholders is rounded
+ * up to a power of two and the extra ones repeat the last value, so chunks of any size map
+ * onto a handful of statement texts that the driver's statement cache can reuse.
+ */
+class InClause {
+    private static final int MIN_PLACEHOLDERS = 8;
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(paddedSize(count), "?"));
+    }
+
+    static void bind(PreparedStatement statement, int firstIndex, List<?> values)
+            throws SQLException {
+        int size = paddedSize(values.size());
+        for (int i = 0; i < size; i++) {
+            statement.setObject(firstIndex + i, values.get(Math.min(i, values.size() - 1)));
+        }
+    }
+
+    private static int paddedSize(int count) {
+        if (count <= MIN_PLACEHOLDERS) {
+            return MIN_PLACEHOLDERS;
+        }
+        return Integer.highestOneBit(count - 1) << 1;
+    }
+}
@@ -6,26 +6,52 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
 
 @Dao
 public class ManufacturerDaoImpl implements ManufacturerDao {
     private static final Logger logger = LogManager.getLogger(ManufacturerDaoImpl.class);
+    private static final int IN_QUERY_CHUNK_SIZE = 1000;
+    private static final String INSERT_QUERY = "INSERT INTO manufacturers (name, country) "
+            + "VALUES (?,?)";
+    private static final String GET_QUERY = "SELECT * FROM manufacturers "
+            + "WHERE id = ? AND is_deleted = FALSE";
+    private static final String GET_ALL_QUERY = "SELECT * FROM manufacturers "
+            + "WHERE is_deleted = FALSE";
+    private static final String GET_PAGE_ASC_QUERY = "SELECT * FROM manufacturers "
+            + "WHERE is_deleted = FALSE AND id > ? ORDER BY id LIMIT ?";
+    private static final String GET_PAGE_DESC_QUERY = "SELECT * FROM manufacturers "
+            + "WHERE is_deleted = FALSE AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String GET_ALL_BY_IDS_QUERY_PREFIX = "SELECT * FROM manufacturers "
+            + "WHERE is_deleted = FALSE AND id IN (";
+    private static final String UPDATE_QUERY = "UPDATE manufacturers SET name = ?, country = ? "
+            + "WHERE id = ? AND is_deleted = FALSE";
+    private static final String DELETE_QUERY = "UPDATE manufacturers SET is_deleted = TRUE "
+            + "WHERE id = ?";
+    private static final String DELETE_ALL_QUERY_PREFIX = "UPDATE manufacturers "
+            + "SET is_deleted = TRUE WHERE is_deleted = FALSE AND id IN (";
 
     @Override
     public Manufacturer create(Manufacturer manufacturer) {
         logger.info("Method create was called with params: manufacturer = {}", manufacturer);
-        String query = "INSERT INTO manufacturers (name, country) VALUES (?,?)";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement
-                        = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                        = connection.prepareStatement(INSERT_QUERY,
+                                Statement.RETURN_GENERATED_KEYS)) {
             setUpdate(statement, manufacturer).executeUpdate();
             ResultSet resultSet = statement.getGeneratedKeys();
             if (resultSet.next()) {
@@ -43,9 +69,8 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     @Override
     public Optional<Manufacturer> get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        String query = "SELECT * FROM manufacturers WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(GET_QUERY)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             Manufacturer manufacturer = null;
@@ -63,9 +88,8 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     @Override
     public List<Manufacturer> getAll() {
         logger.info("Method getAll was called");
-        String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(GET_ALL_QUERY)) {
             List<Manufacturer> manufacturers = new ArrayList<>();
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
@@ -79,15 +103,35 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public Page<Manufacturer> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        String query = pageRequest.isDescending() ? GET_PAGE_DESC_QUERY : GET_PAGE_ASC_QUERY;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, pageRequest.getCursorBoundary());
+            statement.setInt(2, pageRequest.getSize() + 1);
+            List<Manufacturer> manufacturers = new ArrayList<>();
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                manufacturers.add(parseManufacturerFromResultSet(resultSet));
+            }
+            logger.debug("Method getPage was accomplished.");
+            return Page.of(manufacturers, pageRequest.getSize(), Manufacturer::getId);
+        } catch (SQLException e) {
+            logger.error("Can't get page of manufacturers {}, reason: {}",
+                    pageRequest, e.getMessage());
+            throw new DataProcessingException("Can't get page of manufacturers " + pageRequest, e);
+        }
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
         logger.info("Method update was called with params: manufacturer = {}",
                     manufacturer);
-        String query = "UPDATE manufacturers SET name = ?, country = ?"
-                + " WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement
-                        = setUpdate(connection.prepareStatement(query), manufacturer)) {
+                        = setUpdate(connection.prepareStatement(UPDATE_QUERY), manufacturer)) {
             statement.setLong(3, manufacturer.getId());
             statement.executeUpdate();
             logger.debug("Method update was accomplished. Value of manufacturer = {}",
@@ -103,9 +147,8 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        String query = "UPDATE manufacturers SET is_deleted = TRUE WHERE id = ?";
         try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
+                PreparedStatement statement = connection.prepareStatement(DELETE_QUERY)) {
             statement.setLong(1, id);
             boolean isDeleted = statement.executeUpdate() > 0;
             logger.debug("Method delete was accomplished. isDeleted = {}", isDeleted);
@@ -116,8 +159,127 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         }
     }
 
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        logger.info("Method createAll was called with params: manufacturers count = {}",
+                manufacturers.size());
+        if (manufacturers.isEmpty()) {
+            return manufacturers;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement
+                        = connection.prepareStatement(INSERT_QUERY,
+                                Statement.RETURN_GENERATED_KEYS)) {
+            for (Manufacturer manufacturer : manufacturers) {
+                setUpdate(statement, manufacturer).addBatch();
+            }
+            statement.executeBatch();
+            ResultSet resultSet = statement.getGeneratedKeys();
+            for (Manufacturer manufacturer : manufacturers) {
+                if (resultSet.next()) {
+                    manufacturer.setId(resultSet.getObject(1, Long.class));
+                }
+            }
+            logger.debug("Method createAll was accomplished.");
+            return manufacturers;
+        } catch (SQLException e) {
+            logger.error("Can't create {} manufacturers, reason: {}",
+                    manufacturers.size(), e.getMessage());
+            throw new DataProcessingException("Can't create " + manufacturers.size()
+                    + " manufacturers", e);
+        }
+    }
+
+    @Override
+    public List<Manufacturer> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Manufacturer> manufacturersById = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+            String query = GET_ALL_BY_IDS_QUERY_PREFIX + InClause.placeholders(chunk.size())
+                    + ")";
+            try (Connection connection = ConnectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(query)) {
+                InClause.bind(statement, 1, chunk);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    Manufacturer manufacturer = parseManufacturerFromResultSet(resultSet);
+                    manufacturersById.put(manufacturer.getId(), manufacturer);
+                }
+            } catch (SQLException e) {
+                logger.error("Can't get manufacturers by ids {}, reason: {}",
+                        chunk, e.getMessage());
+                throw new DataProcessingException("Can't get manufacturers by ids " + chunk, e);
+            }
+        }
+        List<Manufacturer> manufacturers = new ArrayList<>(manufacturersById.size());
+        for (Long id : idList) {
+            Manufacturer manufacturer = manufacturersById.get(id);
+            if (manufacturer != null) {
+                manufacturers.add(manufacturer);
+            }
+        }
+        logger.debug("Method getAllByIds was accomplished.");
+        return manufacturers;
+    }
+
+    @Override
+    public List<Manufacturer> updateAll(List<Manufacturer> manufacturers) {
+        logger.info("Method updateAll was called with params: manufacturers count = {}",
+                manufacturers.size());
+        if (manufacturers.isEmpty()) {
+            return manufacturers;
+        }
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(UPDATE_QUERY)) {
+            for (Manufacturer manufacturer : manufacturers) {
+                setUpdate(statement, manufacturer).setLong(3, manufacturer.getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            logger.debug("Method updateAll was accomplished.");
+            return manufacturers;
+        } catch (SQLException e) {
+            logger.error("Can't update {} manufacturers, reason: {}",
+                    manufacturers.size(), e.getMessage());
+            throw new DataProcessingException("Can't update " + manufacturers.size()
+                    + " manufacturers", e);
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = TransactionManager.inTransaction(() -> {
+            int count = 0;
+            for (int from = 0; from < idList.size(); from += IN_QUERY_CHUNK_SIZE) {
+                List<Long> chunk = idList.subList(from,
+                        Math.min(from + IN_QUERY_CHUNK_SIZE, idList.size()));
+                count += softDelete(chunk);
+            }
+            return count;
+        });
+        logger.debug("Method deleteAll was accomplished. deleted = {}", deleted);
+        return deleted;
+    }
+
+    private int softDelete(List<Long> ids) {
+        String query = DELETE_ALL_QUERY_PREFIX + InClause.placeholders(ids.size()) + ")";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            InClause.bind(statement, 1, ids);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Can't delete manufacturers by ids {}, reason: {}", ids, e.getMessage());
+            throw new DataProcessingException("Can't delete manufacturers by ids " + ids, e);
+        }
+    }
+
     private Manufacturer parseManufacturerFromResultSet(ResultSet resultSet) throws SQLException {
-        logger.info("Method parseManufacturerFromResultSet was called");
+        logger.trace("Method parseManufacturerFromResultSet was called");
         Long id = resultSet.getObject("id", Long.class);
         String name = resultSet.getString("name");
         String country = resultSet.getString("country");
@@ -125,16 +287,16 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         manufacturer.setId(id);
         manufacturer.setName(name);
         manufacturer.setCountry(country);
-        logger.debug("Method parseManufacturerFromResultSet was accomplished.");
+        logger.trace("Method parseManufacturerFromResultSet was accomplished.");
         return manufacturer;
     }
 
     private PreparedStatement setUpdate(PreparedStatement statement,
                                         Manufacturer manufacturer) throws SQLException {
-        logger.info("Method setUpdate was called");
+        logger.trace("Method setUpdate was called");
         statement.setString(1, manufacturer.getName());
         statement.setString(2, manufacturer.getCountry());
-        logger.debug("Method setUpdate was accomplished.");
+        logger.trace("Method setUpdate was accomplished.");
         return statement;
     }
 }
@@ -0,0 +1,11 @@
+package taxi.exception;
+
+public class DuplicateDriverException extends RuntimeException {
+    public DuplicateDriverException(String message) {
+        super(message);
+    }
+
+    public DuplicateDriverException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,85 +1,120 @@
 package taxi.lib;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import taxi.lib.processor.ComponentIndexProcessor;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.TimedComponentHandler;
 
+/**
+ * Resolves {@code @Dao} and {@code @Service} implementations by interface. The
+ * interface-to-implementation index is read from the file generated at build time by
+ * {@link ComponentIndexProcessor}; the class path is scanned only when no index is found.
+ * All components are created and wired once, when the injector is built, so
+ * {@link #getInstance(Class)} is a map lookup. Unless metrics are disabled, components are
+ * handed out and injected behind a {@link TimedComponentHandler} proxy of their interface.
+ *
+ * <p>Injectors are built at most once per package, even when several servlets are
+ * initialized concurrently: other threads asking for the same package wait for the first
+ * build to finish. Asking for a package from code that runs while that same package is
+ * being built, such as a component constructor, fails fast instead of recursing.
+ */
 public class Injector {
-    private static final Map<String, Injector> injectors = new HashMap<>();
-    private final Map<Class<?>, Object> instanceOfClasses = new HashMap<>();
-    private final List<Class<?>> classes = new ArrayList<>();
+    private static final Map<String, Injector> injectors = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Set<String>> packagesInProgress =
+            ThreadLocal.withInitial(HashSet::new);
+    private final Map<Class<?>, Class<?>> implementations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> instanceOfClasses = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> timedInstances = new ConcurrentHashMap<>();
 
     private Injector(String mainPackageName) {
+        ClassLoader classLoader = getClassLoader();
         try {
-            classes.addAll(getClasses(mainPackageName));
+            implementations.putAll(readIndex(classLoader, mainPackageName));
+            if (implementations.isEmpty()) {
+                implementations.putAll(scanImplementations(classLoader, mainPackageName));
+            }
         } catch (IOException | ClassNotFoundException e) {
             throw new RuntimeException("Can't get information about all classes", e);
         }
+        createInstances();
     }
 
     public static Injector getInstance(String mainPackageName) {
-        if (injectors.containsKey(mainPackageName)) {
-            return injectors.get(mainPackageName);
+        Injector injector = injectors.get(mainPackageName);
+        if (injector != null) {
+            return injector;
+        }
+        Set<String> inProgress = packagesInProgress.get();
+        if (!inProgress.add(mainPackageName)) {
+            throw new RuntimeException("Cyclic injector initialization: injector for package "
+                    + mainPackageName + " was requested while it was being built");
+        }
+        try {
+            return injectors.computeIfAbsent(mainPackageName, Injector::new);
+        } finally {
+            inProgress.remove(mainPackageName);
         }
-        Injector injector = new Injector(mainPackageName);
-        injectors.put(mainPackageName, injector);
-        return injector;
     }
 
     public Object getInstance(Class<?> certainInterface) {
-        Object newInstanceOfClass = null;
-        Class<?> clazz = findClassExtendingInterface(certainInterface);
-        Object instanceOfCurrentClass = createInstance(clazz);
-        Field[] declaredFields = clazz.getDeclaredFields();
-        for (Field field : declaredFields) {
-            if (isFieldInitialized(field, instanceOfCurrentClass)) {
-                continue;
-            }
-            if (field.getDeclaredAnnotation(Inject.class) != null) {
-                Object classToInject = getInstance(field.getType());
-                newInstanceOfClass = getNewInstance(clazz);
-                setValueToField(field, newInstanceOfClass, classToInject);
-            } else {
-                throw new RuntimeException("Class " + field.getName() + " in class "
-                        + clazz.getName() + " hasn't annotation Inject");
-            }
-        }
-        if (newInstanceOfClass == null) {
-            return getNewInstance(clazz);
+        Class<?> clazz = implementations.get(certainInterface);
+        if (clazz == null) {
+            throw new RuntimeException("Can't find class which implements "
+                    + certainInterface.getName()
+                    + " interface and has valid annotation (Dao or Service)");
         }
-        return newInstanceOfClass;
+        Object timedInstance = timedInstances.get(certainInterface);
+        return timedInstance != null ? timedInstance : instanceOfClasses.get(clazz);
     }
 
-    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
-        for (Class<?> clazz : classes) {
-            Class<?>[] interfaces = clazz.getInterfaces();
-            for (Class<?> singleInterface : interfaces) {
-                if (singleInterface.equals(certainInterface)
-                        && (clazz.isAnnotationPresent(Service.class)
-                        || clazz.isAnnotationPresent(Dao.class))) {
-                    return clazz;
-                }
+    private void createInstances() {
+        for (Class<?> clazz : implementations.values()) {
+            instanceOfClasses.computeIfAbsent(clazz, this::createInstance);
+        }
+        if (MetricsRegistry.isEnabled()) {
+            for (Map.Entry<Class<?>, Class<?>> entry : implementations.entrySet()) {
+                Class<?> clazz = entry.getValue();
+                timedInstances.put(entry.getKey(), TimedComponentHandler.wrap(
+                        instanceOfClasses.get(clazz), entry.getKey(),
+                        clazz.isAnnotationPresent(Dao.class) ? "dao" : "service"));
             }
         }
-        throw new RuntimeException("Can't find class which implements "
-                + certainInterface.getName()
-                + " interface and has valid annotation (Dao or Service)");
+        for (Map.Entry<Class<?>, Object> entry : instanceOfClasses.entrySet()) {
+            injectFields(entry.getKey(), entry.getValue());
+        }
     }
 
-    private Object getNewInstance(Class<?> certainClass) {
-        if (instanceOfClasses.containsKey(certainClass)) {
-            return instanceOfClasses.get(certainClass);
+    private void injectFields(Class<?> clazz, Object instance) {
+        for (Field field : clazz.getDeclaredFields()) {
+            if (isFieldInitialized(field, instance)) {
+                continue;
+            }
+            if (field.getDeclaredAnnotation(Inject.class) != null) {
+                setValueToField(field, instance, getInstance(field.getType()));
+            } else {
+                throw new RuntimeException("Class " + field.getName() + " in class "
+                        + clazz.getName() + " hasn't annotation Inject");
+            }
         }
-        Object newInstance = createInstance(certainClass);
-        instanceOfClasses.put(certainClass, newInstance);
-        return newInstance;
     }
 
     private boolean isFieldInitialized(Field field, Object instance) {
@@ -110,46 +145,100 @@ public class Injector {
             throw new RuntimeException("Can't set value to field ", e);
         }
     }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            throw new RuntimeException("Class loader is null");
+        }
+        return classLoader;
+    }
+
     /**
-     * Scans all classes accessible from the context class loader which
+     * Reads every component index on the class path and keeps the implementations that
      * belong to the given package and subpackages.
+     */
+    private static Map<Class<?>, Class<?>> readIndex(ClassLoader classLoader,
+                                                     String packageName)
+            throws IOException, ClassNotFoundException {
+        Map<Class<?>, Class<?>> implementations = new HashMap<>();
+        Enumeration<URL> indexes =
+                classLoader.getResources(ComponentIndexProcessor.INDEX_LOCATION);
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (line.startsWith("#") || separator < 0) {
+                        continue;
+                    }
+                    String implementation = line.substring(separator + 1).trim();
+                    if (implementation.startsWith(packageName + ".")) {
+                        implementations.put(Class.forName(line.substring(0, separator).trim(),
+                                false, classLoader),
+                                Class.forName(implementation, false, classLoader));
+                    }
+                }
+            }
+        }
+        return implementations;
+    }
+
+    private static Map<Class<?>, Class<?>> scanImplementations(ClassLoader classLoader,
+                                                               String packageName)
+            throws IOException {
+        Map<Class<?>, Class<?>> implementations = new HashMap<>();
+        for (Class<?> clazz : getClasses(classLoader, packageName)) {
+            if (!clazz.isAnnotationPresent(Service.class)
+                    && !clazz.isAnnotationPresent(Dao.class)) {
+                continue;
+            }
+            for (Class<?> singleInterface : clazz.getInterfaces()) {
+                implementations.putIfAbsent(singleInterface, clazz);
+            }
+        }
+        return implementations;
+    }
+
+    /**
+     * Scans all classes accessible from the class loader which belong to the given
+     * package and subpackages, both in directories and in jar files.
      *
+     * @param classLoader The class loader to scan
      * @param packageName The base package
      * @return The classes
-     * @throws ClassNotFoundException if the class cannot be located
-     * @throws IOException            if I/O errors occur
+     * @throws IOException if I/O errors occur
      */
-
-    private static List<Class<?>> getClasses(String packageName)
-            throws IOException, ClassNotFoundException {
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        if (classLoader == null) {
-            throw new RuntimeException("Class loader is null");
-        }
+    private static List<Class<?>> getClasses(ClassLoader classLoader, String packageName)
+            throws IOException {
         String path = packageName.replace('.', '/');
         Enumeration<URL> resources = classLoader.getResources(path);
-        List<File> dirs = new ArrayList<>();
+        List<Class<?>> classes = new ArrayList<>();
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
-            dirs.add(new File(resource.getFile()));
-        }
-        ArrayList<Class<?>> classes = new ArrayList<>();
-        for (File directory : dirs) {
-            classes.addAll(findClasses(directory, packageName));
+            if ("jar".equals(resource.getProtocol())) {
+                classes.addAll(findClassesInJar(classLoader, resource, path));
+            } else {
+                File directory = new File(URLDecoder.decode(resource.getFile(),
+                        StandardCharsets.UTF_8));
+                classes.addAll(findClasses(classLoader, directory, packageName));
+            }
         }
         return classes;
     }
+
     /**
      * Recursive method used to find all classes in a given directory and subdirs.
      *
+     * @param classLoader The class loader to load classes with
      * @param directory   The base directory
      * @param packageName The package name for classes found inside the base directory
      * @return The classes
-     * @throws ClassNotFoundException if the class cannot be located
      */
-
-    private static List<Class<?>> findClasses(File directory, String packageName)
-            throws ClassNotFoundException {
+    private static List<Class<?>> findClasses(ClassLoader classLoader, File directory,
+                                              String packageName) {
         List<Class<?>> classes = new ArrayList<>();
         if (!directory.exists()) {
             return classes;
@@ -161,14 +250,49 @@ public class Injector {
                     if (file.getName().contains(".")) {
                         throw new RuntimeException("File name shouldn't consist point.");
                     }
-                    classes.addAll(findClasses(file, packageName + "."
+                    classes.addAll(findClasses(classLoader, file, packageName + "."
                             + file.getName()));
                 } else if (file.getName().endsWith(".class")) {
-                    classes.add(Class.forName(packageName + '.'
-                            + file.getName().substring(0, file.getName().length() - 6)));
+                    addClass(classes, classLoader, packageName + '.'
+                            + file.getName().substring(0, file.getName().length() - 6));
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static List<Class<?>> findClassesInJar(ClassLoader classLoader, URL resource,
+                                                   String path) throws IOException {
+        List<Class<?>> classes = new ArrayList<>();
+        JarURLConnection connection = (JarURLConnection) resource.openConnection();
+        connection.setUseCaches(false);
+        try (JarFile jarFile = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                    addClass(classes, classLoader,
+                            name.substring(0, name.length() - 6).replace('/', '.'));
                 }
             }
         }
         return classes;
     }
+
+    /**
+     * Loads a class without initializing it. Classes that can't be linked in this
+     * environment can't be components either, so they are skipped.
+     */
+    private static void addClass(List<Class<?>> classes, ClassLoader classLoader,
+                                 String className) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            clazz = null;
+        }
+        if (clazz != null) {
+            classes.add(clazz);
+        }
+    }
 }
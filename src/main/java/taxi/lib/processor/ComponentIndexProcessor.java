@@ -0,0 +1,138 @@
+package taxi.lib.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes {@value #INDEX_LOCATION} at compile time: one {@code interface=implementation}
+ * line for every interface implemented by a {@code @Dao} or {@code @Service} class. The
+ * Injector reads this file instead of scanning the class path at startup.
+ *
+ * <p>An incremental build compiles only the changed sources, so the index left by the
+ * previous build is merged in: its components are indexed again from their current
+ * class files, and entries whose class no longer exists or is no longer a component
+ * are dropped.
+ */
+@SupportedAnnotationTypes({"taxi.lib.Dao", "taxi.lib.Service"})
+public class ComponentIndexProcessor extends AbstractProcessor {
+    public static final String INDEX_LOCATION = "META-INF/taxi/components.idx";
+    private final Map<String, String> implementations = new TreeMap<>();
+    private final Set<String> indexedComponents = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "@" + annotation.getSimpleName() + " is allowed on classes only",
+                            element);
+                    continue;
+                }
+                indexComponent((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            mergePreviousIndex();
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexComponent(TypeElement component) {
+        String implementation = binaryName(component);
+        indexedComponents.add(implementation);
+        for (TypeMirror implemented : component.getInterfaces()) {
+            TypeElement type = (TypeElement) ((DeclaredType) implemented).asElement();
+            String previous = implementations.put(binaryName(type), implementation);
+            if (previous != null && !previous.equals(implementation)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Both " + previous + " and " + implementation + " implement "
+                                + type.getQualifiedName(), component);
+            }
+        }
+    }
+
+    private void mergePreviousIndex() {
+        Set<String> previousComponents = new TreeSet<>();
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(index.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (!line.startsWith("#") && separator >= 0) {
+                        previousComponents.add(line.substring(separator + 1).trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return;
+        }
+        previousComponents.removeAll(indexedComponents);
+        for (String implementation : previousComponents) {
+            TypeElement component = processingEnv.getElementUtils()
+                    .getTypeElement(implementation.replace('$', '.'));
+            if (component != null && component.getKind() == ElementKind.CLASS
+                    && isComponent(component)) {
+                indexComponent(component);
+            }
+        }
+    }
+
+    private boolean isComponent(TypeElement type) {
+        Set<String> supported = getSupportedAnnotationTypes();
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (supported.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (Map.Entry<String, String> entry : implementations.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't write " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
@@ -0,0 +1,191 @@
+package taxi.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import taxi.util.LatencyHistogram;
+
+/**
+ * Process-wide timers, counters and gauges, exposed at {@code /metrics} in the Prometheus
+ * text format and over JMX as {@value #MBEAN_NAME}. Series are identified by a Prometheus
+ * metric name and a label string built by {@link #labels(String...)}; timers are
+ * {@link LatencyHistogram}s. When {@code taxi.metrics.enabled} is {@code false} nothing
+ * is instrumented in the first place, so requests don't pay for metrics at all.
+ */
+public class MetricsRegistry implements MetricsStats {
+    public static final String MBEAN_NAME = "taxi:type=Metrics";
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("taxi.metrics.enabled", "true"));
+    private static final MetricsRegistry instance = new MetricsRegistry();
+    private final Map<String, Map<String, LatencyHistogram>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Supplier<Number>>> gauges =
+            new ConcurrentHashMap<>();
+    private final Set<String> restricted = ConcurrentHashMap.newKeySet();
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Builds a label string such as {@code servlet="cars",status="2xx"} from alternating
+     * names and values.
+     */
+    public static String labels(String... namesAndValues) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(namesAndValues[i]).append("=\"");
+            String value = namesAndValues[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    labels.append('\\').append(c);
+                } else if (c == '\n') {
+                    labels.append("\\n");
+                } else {
+                    labels.append(c);
+                }
+            }
+            labels.append('"');
+        }
+        return labels.toString();
+    }
+
+    public LatencyHistogram timer(String name, String labels) {
+        return timers.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(labels, key -> new LatencyHistogram());
+    }
+
+    public void register(String name, String labels, LatencyHistogram histogram) {
+        timers.computeIfAbsent(name, key -> new ConcurrentHashMap<>()).put(labels, histogram);
+    }
+
+    public LongAdder counter(String name, String labels) {
+        return counters.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(labels, key -> new LongAdder());
+    }
+
+    public void registerCounter(String name, String labels, LongAdder counter) {
+        counters.computeIfAbsent(name, key -> new ConcurrentHashMap<>()).put(labels, counter);
+    }
+
+    public void gauge(String name, String labels, Supplier<Number> value) {
+        gauges.computeIfAbsent(name, key -> new ConcurrentHashMap<>()).put(labels, value);
+    }
+
+    /**
+     * Marks a metric whose labels describe the application's internals, such as SQL
+     * templates, so that it is left out of output meant for anonymous clients.
+     */
+    public void restrict(String name) {
+        restricted.add(name);
+    }
+
+    /**
+     * Writes every series in the Prometheus text exposition format, version 0.0.4.
+     * Timers become histograms in seconds with the buckets of {@link LatencyHistogram}.
+     * Restricted metrics are written only when {@code includeRestricted} is set.
+     */
+    public void writePrometheus(Writer writer, boolean includeRestricted) throws IOException {
+        long[] bounds = LatencyHistogram.getBucketBoundsMillis();
+        for (Map.Entry<String, Map<String, LatencyHistogram>> metric
+                : new TreeMap<>(timers).entrySet()) {
+            String name = metric.getKey();
+            if (!includeRestricted && restricted.contains(name)) {
+                continue;
+            }
+            writer.write("# TYPE " + name + " histogram\n");
+            for (Map.Entry<String, LatencyHistogram> series
+                    : new TreeMap<>(metric.getValue()).entrySet()) {
+                String labels = series.getKey();
+                String bucketPrefix = labels.isEmpty() ? "" : labels + ",";
+                long[] counts = series.getValue().getBucketCounts();
+                long cumulative = 0;
+                for (int i = 0; i < bounds.length; i++) {
+                    cumulative += counts[i];
+                    writeSample(writer, name + "_bucket", bucketPrefix + "le=\""
+                            + BigDecimal.valueOf(bounds[i], 3).stripTrailingZeros()
+                            .toPlainString() + "\"", cumulative);
+                }
+                cumulative += counts[bounds.length];
+                writeSample(writer, name + "_bucket", bucketPrefix + "le=\"+Inf\"",
+                        cumulative);
+                writeSample(writer, name + "_sum", labels,
+                        series.getValue().getTotalNanos() / 1e9);
+                writeSample(writer, name + "_count", labels, cumulative);
+            }
+        }
+        for (Map.Entry<String, Map<String, LongAdder>> metric
+                : new TreeMap<>(counters).entrySet()) {
+            if (!includeRestricted && restricted.contains(metric.getKey())) {
+                continue;
+            }
+            writer.write("# TYPE " + metric.getKey() + " counter\n");
+            for (Map.Entry<String, LongAdder> series
+                    : new TreeMap<>(metric.getValue()).entrySet()) {
+                writeSample(writer, metric.getKey(), series.getKey(), series.getValue().sum());
+            }
+        }
+        for (Map.Entry<String, Map<String, Supplier<Number>>> metric
+                : new TreeMap<>(gauges).entrySet()) {
+            if (!includeRestricted && restricted.contains(metric.getKey())) {
+                continue;
+            }
+            writer.write("# TYPE " + metric.getKey() + " gauge\n");
+            for (Map.Entry<String, Supplier<Number>> series
+                    : new TreeMap<>(metric.getValue()).entrySet()) {
+                writeSample(writer, metric.getKey(), series.getKey(), series.getValue().get());
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        timers.forEach((name, series) -> series.forEach((labels, histogram) ->
+                snapshot.put(seriesName(name, labels), histogram.getCount())));
+        return snapshot;
+    }
+
+    @Override
+    public Map<String, Double> getTimerMeanMillis() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        timers.forEach((name, series) -> series.forEach((labels, histogram) ->
+                snapshot.put(seriesName(name, labels), histogram.getMeanMillis())));
+        return snapshot;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, series) -> series.forEach((labels, counter) ->
+                snapshot.put(seriesName(name, labels), counter.sum())));
+        return snapshot;
+    }
+
+    private static String seriesName(String name, String labels) {
+        return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+
+    private static void writeSample(Writer writer, String name, String labels, Number value)
+            throws IOException {
+        writer.write(seriesName(name, labels));
+        writer.write(' ');
+        writer.write(value.toString());
+        writer.write('\n');
+    }
+}
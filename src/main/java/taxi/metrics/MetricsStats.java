@@ -0,0 +1,13 @@
+package taxi.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+@MXBean
+public interface MetricsStats {
+    Map<String, Long> getTimerCounts();
+
+    Map<String, Double> getTimerMeanMillis();
+
+    Map<String, Long> getCounters();
+}
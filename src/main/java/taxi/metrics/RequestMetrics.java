@@ -0,0 +1,82 @@
+package taxi.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statements, database time and view rendering time of the request served by the current
+ * thread. Filled by {@link StatementProfiler} and the request dispatchers of
+ * {@code MetricsFilter}; only the outermost forward or include counts as rendering.
+ */
+public class RequestMetrics {
+    private static final ThreadLocal<RequestMetrics> current = new ThreadLocal<>();
+    private final String request;
+    private final Map<StatementStats, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+    private long dbNanos;
+    private long renderNanos;
+    private int renderDepth;
+    private long renderStart;
+
+    private RequestMetrics(String request) {
+        this.request = request;
+    }
+
+    public static RequestMetrics start(String request) {
+        RequestMetrics requestMetrics = new RequestMetrics(request);
+        current.set(requestMetrics);
+        return requestMetrics;
+    }
+
+    public static RequestMetrics current() {
+        return current.get();
+    }
+
+    public static void end() {
+        current.remove();
+    }
+
+    /**
+     * Counts the statement in the totals, and per template only when {@code repeatable},
+     * that is when running it many times in one request would point to an N+1 query.
+     */
+    public void addStatement(StatementStats stats, long nanos, boolean repeatable) {
+        if (repeatable) {
+            statementCounts.merge(stats, 1, Integer::sum);
+        }
+        statementCount++;
+        dbNanos += nanos;
+    }
+
+    public void beginRender() {
+        if (renderDepth++ == 0) {
+            renderStart = System.nanoTime();
+        }
+    }
+
+    public void endRender() {
+        if (--renderDepth == 0) {
+            renderNanos += System.nanoTime() - renderStart;
+        }
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public Map<StatementStats, Integer> getStatementCounts() {
+        return statementCounts;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+}
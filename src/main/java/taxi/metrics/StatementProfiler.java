@@ -0,0 +1,124 @@
+package taxi.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Groups the statements run through {@link TimedStatementHandler} by SQL template: the SQL
+ * with literals replaced by {@code ?}, comments removed, {@code IN} lists collapsed and
+ * whitespace normalized, so the padded {@code IN} lists of one query share a template. For every
+ * template it keeps execution time, rows read and the number of requests that ran it at
+ * least {@code taxi.db.repeatedStatementThreshold} times, which usually means an N+1
+ * query. Batches and templates with an {@code IN} list don't count as repeats: the DAOs
+ * run those once per chunk on purpose. Statements slower than
+ * {@code taxi.db.slowQueryMillis} are logged with their template and the types of their
+ * parameters, never the values. The per-template metrics are restricted, since templates
+ * describe the schema.
+ */
+public class StatementProfiler {
+    private static final Logger logger = LogManager.getLogger(StatementProfiler.class);
+    private static final long SLOW_QUERY_MILLIS = 500;
+    private static final int REPEATED_STATEMENT_THRESHOLD = 5;
+    private static final long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("taxi.db.slowQueryMillis", SLOW_QUERY_MILLIS));
+    private static final int repeatedStatementThreshold = Integer.getInteger(
+            "taxi.db.repeatedStatementThreshold", REPEATED_STATEMENT_THRESHOLD);
+    private static final String IN_LIST_TEMPLATE = "IN (?, ...)";
+    private static final String QUERY_SECONDS = "db_query_seconds";
+    private static final String QUERY_ROWS = "db_query_rows_total";
+    private static final String QUERY_REPEATED_REQUESTS = "db_query_repeated_requests_total";
+    private static final Pattern LITERAL_OR_COMMENT =
+            Pattern.compile("'(?:[^']|'')*'|--[^\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST =
+            Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Map<String, StatementStats> statsByTemplate =
+            new ConcurrentHashMap<>();
+    private static final Map<String, StatementStats> statsBySql = new ConcurrentHashMap<>();
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.restrict(QUERY_SECONDS);
+        metrics.restrict(QUERY_ROWS);
+        metrics.restrict(QUERY_REPEATED_REQUESTS);
+    }
+
+    /**
+     * Looks up the statistics of SQL written in the code, which is a bounded set of
+     * strings, so the template is computed once per string.
+     */
+    public static StatementStats forPreparedSql(String sql) {
+        return statsBySql.computeIfAbsent(sql, StatementProfiler::forSql);
+    }
+
+    public static StatementStats forSql(String sql) {
+        return statsByTemplate.computeIfAbsent(toTemplate(sql), template -> {
+            MetricsRegistry metrics = MetricsRegistry.getInstance();
+            StatementStats stats =
+                    new StatementStats(template, template.contains(IN_LIST_TEMPLATE));
+            String labels = MetricsRegistry.labels("template", template);
+            metrics.register(QUERY_SECONDS, labels, stats.getExecutionTime());
+            metrics.registerCounter(QUERY_ROWS, labels, stats.getRows());
+            metrics.registerCounter(QUERY_REPEATED_REQUESTS, labels,
+                    stats.getRepeatedRequests());
+            return stats;
+        });
+    }
+
+    /**
+     * String literals and comments are matched in one pass, so that quotes inside a
+     * comment and comment markers inside a string don't confuse each other.
+     */
+    public static String toTemplate(String sql) {
+        String template = LITERAL_OR_COMMENT.matcher(sql)
+                .replaceAll(match -> match.group().startsWith("'") ? "?" : " ");
+        template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+        template = IN_LIST.matcher(template).replaceAll(IN_LIST_TEMPLATE);
+        return WHITESPACE.matcher(template).replaceAll(" ").trim();
+    }
+
+    public static void record(StatementStats stats, long nanos, List<String> parameterTypes,
+                              boolean batch) {
+        stats.record(nanos);
+        RequestMetrics requestMetrics = RequestMetrics.current();
+        if (requestMetrics != null) {
+            requestMetrics.addStatement(stats, nanos, !batch && !stats.isInList());
+        }
+        if (nanos >= slowQueryNanos) {
+            logger.warn("Slow statement took {} ms in {}: {} parameters: {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos),
+                    requestMetrics == null ? "no request" : requestMetrics.getRequest(),
+                    stats.getTemplate(), parameterTypes.toString());
+        }
+    }
+
+    /**
+     * Reports the templates that the finished request ran at least
+     * {@code taxi.db.repeatedStatementThreshold} times.
+     */
+    public static void endRequest(RequestMetrics requestMetrics) {
+        for (Map.Entry<StatementStats, Integer> entry
+                : requestMetrics.getStatementCounts().entrySet()) {
+            if (entry.getValue() >= repeatedStatementThreshold) {
+                entry.getKey().markRepeated();
+                logger.warn("Statement ran {} times in {}, possible N+1 query: {}",
+                        entry.getValue(), requestMetrics.getRequest(),
+                        entry.getKey().getTemplate());
+            }
+        }
+    }
+
+    public static List<StatementStats> getTop(Comparator<StatementStats> order, int limit) {
+        List<StatementStats> statements = new ArrayList<>(statsByTemplate.values());
+        statements.sort(order);
+        return statements.subList(0, Math.min(limit, statements.size()));
+    }
+}
@@ -0,0 +1,78 @@
+package taxi.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import taxi.util.LatencyHistogram;
+
+/**
+ * Execution statistics of one SQL template, as collected by {@link StatementProfiler}.
+ */
+public class StatementStats {
+    private final String template;
+    private final boolean inList;
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder repeatedRequests = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public StatementStats(String template, boolean inList) {
+        this.template = template;
+        this.inList = inList;
+    }
+
+    public void record(long nanos) {
+        executionTime.record(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public void addRow() {
+        rows.increment();
+    }
+
+    public void markRepeated() {
+        repeatedRequests.increment();
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Whether the template filters on a list of bound values, which the DAOs run once per
+     * chunk of ids.
+     */
+    public boolean isInList() {
+        return inList;
+    }
+
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    public long getCount() {
+        return executionTime.getCount();
+    }
+
+    public long getTotalNanos() {
+        return executionTime.getTotalNanos();
+    }
+
+    public double getMeanMillis() {
+        return executionTime.getMeanMillis();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public LongAdder getRows() {
+        return rows;
+    }
+
+    /**
+     * Number of requests in which the template ran often enough to look like an N+1 query.
+     */
+    public LongAdder getRepeatedRequests() {
+        return repeatedRequests;
+    }
+}
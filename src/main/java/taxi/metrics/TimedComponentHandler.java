@@ -0,0 +1,60 @@
+package taxi.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import taxi.util.LatencyHistogram;
+
+/**
+ * Times every call made through a component interface into
+ * {@code <kind>_method_seconds{<kind>="<interface>",method="<method>"}}, for example
+ * {@code service_method_seconds{service="CarService",method="getPage"}}.
+ */
+public class TimedComponentHandler implements InvocationHandler {
+    private final Object target;
+    private final String metricName;
+    private final String labelName;
+    private final String componentName;
+    private final Map<Method, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    private TimedComponentHandler(Object target, String kind, String componentName) {
+        this.target = target;
+        this.metricName = kind + "_method_seconds";
+        this.labelName = kind;
+        this.componentName = componentName;
+    }
+
+    public static Object wrap(Object target, Class<?> componentInterface, String kind) {
+        return Proxy.newProxyInstance(componentInterface.getClassLoader(),
+                new Class<?>[] {componentInterface},
+                new TimedComponentHandler(target, kind, componentInterface.getSimpleName()));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeTarget(method, args);
+        }
+        LatencyHistogram timer = timers.computeIfAbsent(method, key ->
+                MetricsRegistry.getInstance().timer(metricName,
+                        MetricsRegistry.labels(labelName, componentName,
+                                "method", key.getName())));
+        long start = System.nanoTime();
+        try {
+            return invokeTarget(method, args);
+        } finally {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package taxi.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import taxi.util.LatencyHistogram;
+
+/**
+ * Times the {@code execute*} calls of a JDBC statement into {@code db_statement_seconds}
+ * and hands them to {@link StatementProfiler} under the template of their SQL. Result
+ * sets are wrapped to count the rows read. Parameters are tracked by type only, so no
+ * bound value ever reaches the profiler.
+ */
+public class TimedStatementHandler implements InvocationHandler {
+    private static final LatencyHistogram statementTime =
+            MetricsRegistry.getInstance().timer("db_statement_seconds", "");
+    private final Statement statement;
+    private final StatementStats preparedStats;
+    private final List<String> parameterTypes = new ArrayList<>();
+    private StatementStats lastStats;
+
+    private TimedStatementHandler(Statement statement, String preparedSql) {
+        this.statement = statement;
+        this.preparedStats = preparedSql == null
+                ? null : StatementProfiler.forPreparedSql(preparedSql);
+    }
+
+    /**
+     * Wraps a statement created by {@code createStatement}, when {@code preparedSql} is
+     * {@code null}, or by {@code prepareStatement} and {@code prepareCall}.
+     */
+    public static Statement wrap(Statement statement, Class<?> statementInterface,
+                                 String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(statementInterface.getClassLoader(),
+                new Class<?>[] {statementInterface},
+                new TimedStatementHandler(statement, preparedSql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            return execute(method, args);
+        }
+        if (name.startsWith("set") && args != null && args.length > 1
+                && args[0] instanceof Integer) {
+            recordParameterType((Integer) args[0], args[1] == null || name.equals("setNull")
+                    ? "Null" : name.substring(3));
+        } else if (name.equals("clearParameters")) {
+            parameterTypes.clear();
+        }
+        Object result = invokeTarget(method, args);
+        return name.equals("getResultSet") && result != null && lastStats != null
+                ? countRows((ResultSet) result, lastStats) : result;
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        StatementStats stats = preparedStats != null || args == null || args.length == 0
+                ? preparedStats : StatementProfiler.forSql((String) args[0]);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invokeTarget(method, args);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            statementTime.record(elapsed);
+            if (stats != null) {
+                StatementProfiler.record(stats, elapsed, parameterTypes,
+                        method.getName().contains("Batch"));
+            }
+        }
+        lastStats = stats;
+        return result instanceof ResultSet && stats != null
+                ? countRows((ResultSet) result, stats) : result;
+    }
+
+    private void recordParameterType(int index, String type) {
+        while (parameterTypes.size() < index) {
+            parameterTypes.add("?");
+        }
+        parameterTypes.set(index - 1, type);
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, StatementStats stats) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(resultSet, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                        stats.addRow();
+                    }
+                    return result;
+                });
+    }
+}
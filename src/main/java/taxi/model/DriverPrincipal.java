@@ -0,0 +1,50 @@
+package taxi.model;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * The signed-in driver as kept in the session and handed to controllers under
+ * {@link #ATTRIBUTE}. Immutable; a fresh one replaces it when it gets older than the
+ * filter's refresh interval.
+ */
+public class DriverPrincipal implements Serializable {
+    public static final String ATTRIBUTE = "principal";
+    private static final long serialVersionUID = 1L;
+    private final Long id;
+    private final String name;
+    private final Set<Long> carIds;
+    private final long loadedAt;
+
+    public DriverPrincipal(Long id, String name, Set<Long> carIds) {
+        this.id = id;
+        this.name = name;
+        this.carIds = Set.copyOf(carIds);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Long> getCarIds() {
+        return carIds;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DriverPrincipal{"
+                + "id=" + id
+                + ", name='" + name + '\''
+                + ", carIds=" + carIds
+                + '}';
+    }
+}
@@ -0,0 +1,86 @@
+package taxi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+    private final String entityName;
+    private final int totalRows;
+    private final List<RowError> errors = new ArrayList<>();
+    private int importedRows;
+    private long elapsedMillis;
+
+    public ImportReport(String entityName, int totalRows) {
+        this.entityName = entityName;
+        this.totalRows = totalRows;
+    }
+
+    public void addError(int row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    public void addImported(int rows) {
+        importedRows += rows;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getImportedRows() {
+        return importedRows;
+    }
+
+    public int getFailedRows() {
+        return errors.size();
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? importedRows : importedRows * 1000L / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{"
+                + "entityName='" + entityName + '\''
+                + ", totalRows=" + totalRows
+                + ", importedRows=" + importedRows
+                + ", failedRows=" + errors.size()
+                + ", elapsedMillis=" + elapsedMillis
+                + '}';
+    }
+
+    public static class RowError {
+        private final int row;
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
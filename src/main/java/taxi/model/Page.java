@@ -0,0 +1,46 @@
+package taxi.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class Page<T> {
+    private final List<T> content;
+    private final Long nextCursor;
+
+    public Page(List<T> content, Long nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}: the extra row
+     * only signals that another page exists and is not returned.
+     */
+    public static <T> Page<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        if (rows.size() <= size) {
+            return new Page<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new Page<>(content, idExtractor.apply(content.get(size - 1)));
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{"
+                + "content=" + content
+                + ", nextCursor=" + nextCursor
+                + '}';
+    }
+}
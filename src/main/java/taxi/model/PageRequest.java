@@ -0,0 +1,55 @@
+package taxi.model;
+
+public class PageRequest {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    private final Long afterId;
+    private final int size;
+    private final Direction direction;
+
+    public PageRequest(Long afterId, int size, Direction direction) {
+        this.afterId = afterId;
+        this.size = Math.max(1, Math.min(size, MAX_SIZE));
+        this.direction = direction;
+    }
+
+    public static PageRequest first() {
+        return new PageRequest(null, DEFAULT_SIZE, Direction.ASC);
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public long getCursorBoundary() {
+        if (afterId != null) {
+            return afterId;
+        }
+        return isDescending() ? Long.MAX_VALUE : 0;
+    }
+
+    public boolean isDescending() {
+        return direction == Direction.DESC;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{"
+                + "afterId=" + afterId
+                + ", size=" + size
+                + ", direction=" + direction
+                + '}';
+    }
+
+    public enum Direction {
+        ASC, DESC
+    }
+}
@@ -2,7 +2,14 @@ package taxi.service;
 
 import taxi.exception.AuthenticationException;
 import taxi.model.Driver;
+import taxi.model.DriverPrincipal;
 
 public interface AuthenticationService {
     Driver login(String login, String password) throws AuthenticationException;
+
+    /**
+     * Builds the principal of a driver from the driver and car caches. Throws
+     * {@link java.util.NoSuchElementException} when the driver no longer exists.
+     */
+    DriverPrincipal getPrincipal(Long driverId);
 }
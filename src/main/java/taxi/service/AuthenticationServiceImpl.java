@@ -1,27 +1,71 @@
 package taxi.service;
 
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.AuthenticationException;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Driver;
+import taxi.model.DriverPrincipal;
+import taxi.util.PasswordUtil;
 
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
     private static final Logger logger = LogManager.getLogger(AuthenticationServiceImpl.class);
     @Inject
     private DriverService driverService;
+    @Inject
+    private CarService carService;
 
     @Override
     public Driver login(String login, String password) throws AuthenticationException {
         logger.info("Method login was called with params: login = {}", login);
-        Optional<Driver> driver = driverService.findByLogin(login);
-        if (driver.isPresent() && driver.get().getPassword().equals(password)) {
-            logger.debug("Method login was accomplished. driver = {}", driver.get());
-            return driver.get();
+        Optional<Driver> driver = driverService.findCredentialsByLogin(login);
+        String storedPassword = driver.map(Driver::getPassword).orElse(null);
+        boolean matches;
+        try {
+            matches = PasswordUtil.verify(password, storedPassword);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Login of {} was rejected, reason: {}", login, e.getMessage());
+            throw new AuthenticationException("Too many logins at the moment, "
+                    + "please try again in a few seconds");
+        }
+        if (!matches) {
+            throw new AuthenticationException("Login or password was incorrect");
+        }
+        if (PasswordUtil.needsRehash(storedPassword)) {
+            rehash(driver.get(), password);
+        }
+        logger.debug("Method login was accomplished. driver = {}", driver.get());
+        return driver.get();
+    }
+
+    @Override
+    public DriverPrincipal getPrincipal(Long driverId) {
+        logger.info("Method getPrincipal was called with params: driverId = {}", driverId);
+        Driver driver = driverService.get(driverId);
+        Set<Long> carIds = new HashSet<>();
+        carService.getAllByDriver(driverId).forEach(car -> carIds.add(car.getId()));
+        DriverPrincipal principal = new DriverPrincipal(driver.getId(), driver.getName(), carIds);
+        logger.debug("Method getPrincipal was accomplished. principal = {}", principal);
+        return principal;
+    }
+
+    /**
+     * Replaces a plain-text or outdated hash with one using the current cost. A failure
+     * here must not fail the login, the next login simply tries again.
+     */
+    private void rehash(Driver driver, String password) {
+        try {
+            driverService.updatePassword(driver.getId(), password);
+            logger.info("Password of driver {} was rehashed", driver.getId());
+        } catch (RuntimeException e) {
+            logger.warn("Can't rehash password of driver {}, reason: {}",
+                    driver.getId(), e.getMessage());
         }
-        throw new AuthenticationException("Login or password was incorrect");
     }
 }
@@ -1,6 +1,7 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import taxi.model.Car;
 import taxi.model.Driver;
 
@@ -10,4 +11,6 @@ public interface CarService extends GenericService<Car> {
     void removeDriverFromCar(Driver driver, Car car);
 
     List<Car> getAllByDriver(Long driverId);
+
+    void streamAll(Consumer<Car> consumer);
 }
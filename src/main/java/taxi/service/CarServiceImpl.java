@@ -1,19 +1,47 @@
 package taxi.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.Cache;
+import taxi.cache.CacheManager;
+import taxi.cache.CarDriverIndex;
+import taxi.cache.CollectionVersion;
 import taxi.dao.CarDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Car;
 import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.TransactionManager;
 
 @Service
 public class CarServiceImpl implements CarService {
+    static final String CAR_CACHE_NAME = "cars";
+    static final int CAR_CACHE_MAX_SIZE = 10_000;
+    static final long CAR_CACHE_TTL_MILLIS = 300_000;
     private static final Logger logger = LogManager.getLogger(CarServiceImpl.class);
+    private static final Cache<Long, Car> carCache = CacheManager.getCache(CAR_CACHE_NAME,
+            CAR_CACHE_MAX_SIZE, CAR_CACHE_TTL_MILLIS);
+    private static final CarDriverIndex carDriverIndex = CacheManager.getCarDriverIndex();
+
+    static {
+        carDriverIndex.setCarEvictionListener(carCache::invalidate);
+    }
+
     @Inject
     private CarDao carDao;
 
@@ -22,7 +50,7 @@ public class CarServiceImpl implements CarService {
         logger.info("Method addDriverToCar was called with params: driver = {}"
                 + ", car = {}", driver, car);
         car.getDrivers().add(driver);
-        carDao.update(car);
+        update(car);
         logger.debug("Method login was accomplished");
     }
 
@@ -31,7 +59,7 @@ public class CarServiceImpl implements CarService {
         logger.info("Method removeDriverFromCar was called with params: driver = {}"
                 + ", car = {}", driver, car);
         car.getDrivers().remove(driver);
-        carDao.update(car);
+        update(car);
         logger.debug("Method login was accomplished");
     }
 
@@ -39,26 +67,90 @@ public class CarServiceImpl implements CarService {
     public List<Car> getAllByDriver(Long driverId) {
         logger.info("Method getAllByDriver was called with params: "
                 + "driverId = {}", driverId);
-        return carDao.getAllByDriver(driverId);
+        List<Car> cachedCars = getCachedCarsByDriver(driverId);
+        if (cachedCars != null) {
+            logger.debug("Cars of driver {} were found in cache", driverId);
+            return cachedCars;
+        }
+        long indexVersion = carDriverIndex.getVersion();
+        List<Car> cars = carDao.getAllByDriver(driverId);
+        Map<Long, List<Long>> driverIdsByCar = new HashMap<>();
+        cars.forEach(car -> driverIdsByCar.put(car.getId(), getDriverIds(car)));
+        carDriverIndex.putDriver(driverId, driverIdsByCar, indexVersion,
+                () -> cars.forEach(car -> carCache.put(car.getId(), copyOf(car))));
+        return cars;
+    }
+
+    @Override
+    public void streamAll(Consumer<Car> consumer) {
+        logger.info("Method streamAll was called");
+        carDao.streamAll(consumer);
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        logger.info("Method createAll was called with params: cars count = {}", cars.size());
+        List<Car> created = carDao.createAll(cars);
+        invalidateAfterCompletion(created);
+        CollectionVersion.CARS.increment();
+        return created;
     }
 
     @Override
     public Car create(Car car) {
         logger.info("Method create was called with params: car = {}", car);
-        return carDao.create(car);
+        Car created = carDao.create(car);
+        invalidateAfterCompletion(List.of(created));
+        CollectionVersion.CARS.increment();
+        return created;
     }
 
     @Override
     public Car get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        Optional<Car> carFromDb = carDao.get(id);
-        if (carFromDb.isEmpty()) {
+        Car car = carCache.getIfPresent(id);
+        if (car == null) {
+            car = loadCar(id);
+        }
+        if (car == null) {
             logger.error("Obtained empty result on get car by id request "
                     + "with id {}", id);
             throw new NoSuchElementException("Can't get car by id: " + id);
         }
-        logger.debug("Information about car was successfully fetched from DB.");
-        return carFromDb.get();
+        logger.debug("Information about car was successfully fetched.");
+        return copyOf(car);
+    }
+
+    @Override
+    public List<Car> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        Map<Long, Car> carsById = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            Car car = carCache.getIfPresent(id);
+            if (car != null) {
+                carsById.put(id, copyOf(car));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            long indexVersion = carDriverIndex.getVersion();
+            for (Car car : carDao.getAllByIds(missingIds)) {
+                carsById.put(car.getId(), car);
+                Car loaded = copyOf(car);
+                carDriverIndex.putCar(car.getId(), getDriverIds(car), indexVersion,
+                        () -> carCache.put(loaded.getId(), loaded));
+            }
+        }
+        List<Car> cars = new ArrayList<>(carsById.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Car car = carsById.get(id);
+            if (car != null) {
+                cars.add(car);
+            }
+        }
+        return cars;
     }
 
     @Override
@@ -67,15 +159,143 @@ public class CarServiceImpl implements CarService {
         return carDao.getAll();
     }
 
+    @Override
+    public Page<Car> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        return carDao.getPage(pageRequest);
+    }
+
     @Override
     public Car update(Car car) {
         logger.info("Method update was called with params: car = {}", car);
-        return carDao.update(car);
+        try {
+            return carDao.update(car);
+        } finally {
+            CollectionVersion.CARS.increment();
+            invalidateAfterCompletion(List.of(car));
+        }
+    }
+
+    @Override
+    public List<Car> updateAll(List<Car> cars) {
+        logger.info("Method updateAll was called with params: cars count = {}", cars.size());
+        try {
+            return carDao.updateAll(cars);
+        } finally {
+            CollectionVersion.CARS.increment();
+            invalidateAfterCompletion(cars);
+        }
     }
 
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        return carDao.delete(id);
+        try {
+            return carDao.delete(id);
+        } finally {
+            CollectionVersion.CARS.increment();
+            invalidateDeletedAfterCompletion(Collections.singletonList(id));
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        try {
+            return carDao.deleteAll(ids);
+        } finally {
+            CollectionVersion.CARS.increment();
+            invalidateDeletedAfterCompletion(ids);
+        }
+    }
+
+    /**
+     * Drops the cars from the cache once the surrounding transaction has completed. Doing
+     * it earlier would let another thread load and cache the rows it still sees
+     * uncommitted. The driver ids are taken now, while the cars are as they were written.
+     */
+    private void invalidateAfterCompletion(List<Car> cars) {
+        Map<Long, List<Long>> driverIdsByCar = new HashMap<>();
+        cars.forEach(car -> driverIdsByCar.put(car.getId(), getDriverIds(car)));
+        TransactionManager.afterCompletion(() -> driverIdsByCar.forEach((id, driverIds) -> {
+            carDriverIndex.invalidateCar(id, driverIds);
+            carCache.invalidate(id);
+        }));
+    }
+
+    private void invalidateDeletedAfterCompletion(Collection<Long> ids) {
+        List<Long> deletedIds = new ArrayList<>(ids);
+        TransactionManager.afterCompletion(() -> deletedIds.forEach(id -> {
+            carDriverIndex.invalidateCar(id, List.of());
+            carCache.invalidate(id);
+        }));
+    }
+
+    private Car loadCar(Long id) {
+        long indexVersion = carDriverIndex.getVersion();
+        Car car = carDao.get(id).orElse(null);
+        if (car != null) {
+            Car loaded = car;
+            carDriverIndex.putCar(id, getDriverIds(car), indexVersion,
+                    () -> carCache.put(id, loaded));
+        }
+        return car;
+    }
+
+    private List<Car> getCachedCarsByDriver(Long driverId) {
+        Set<Long> carIds = carDriverIndex.getCarIds(driverId);
+        if (carIds == null) {
+            return null;
+        }
+        List<Car> cars = new ArrayList<>(carIds.size());
+        for (Long carId : carIds) {
+            Car car = carCache.getIfPresent(carId);
+            if (car == null) {
+                return null;
+            }
+            cars.add(copyOf(car));
+        }
+        cars.sort(Comparator.comparing(Car::getId));
+        return cars;
+    }
+
+    private List<Long> getDriverIds(Car car) {
+        if (car.getDrivers() == null) {
+            return List.of();
+        }
+        return car.getDrivers().stream()
+                .map(Driver::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Copies the manufacturer and the drivers too, so that a caller changing them doesn't
+     * change the cached car.
+     */
+    private Car copyOf(Car car) {
+        Car copy = new Car(car.getModel(), copyOf(car.getManufacturer()));
+        copy.setId(car.getId());
+        if (car.getDrivers() != null) {
+            List<Driver> drivers = new ArrayList<>(car.getDrivers().size());
+            car.getDrivers().forEach(driver -> drivers.add(copyOf(driver)));
+            copy.setDrivers(drivers);
+        }
+        return copy;
+    }
+
+    private Manufacturer copyOf(Manufacturer manufacturer) {
+        if (manufacturer == null) {
+            return null;
+        }
+        Manufacturer copy = new Manufacturer(manufacturer.getName(), manufacturer.getCountry());
+        copy.setId(manufacturer.getId());
+        return copy;
+    }
+
+    private Driver copyOf(Driver driver) {
+        Driver copy = new Driver(driver.getName(), driver.getLicenseNumber(), driver.getLogin(),
+                driver.getPassword());
+        copy.setId(driver.getId());
+        return copy;
     }
 }
@@ -1,8 +1,34 @@
 package taxi.service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import taxi.model.Driver;
 
 public interface DriverService extends GenericService<Driver> {
+    /**
+     * Creates drivers whose passwords were already hashed with {@code PasswordUtil}, so a
+     * caller can hash before opening a transaction. Everything else goes through
+     * {@link #createAll}, which always hashes.
+     */
+    List<Driver> createAllWithHashedPasswords(List<Driver> drivers);
+
     Optional<Driver> findByLogin(String login);
+
+    Optional<Driver> findCredentialsByLogin(String login);
+
+    /**
+     * Hashes and stores a new password. {@link #update} and {@link #updateAll} store the
+     * password the drivers already carry, which is the hash when they were loaded from this
+     * service.
+     */
+    boolean updatePassword(Long id, String password);
+
+    void streamAll(Consumer<Driver> consumer);
+
+    Set<String> findExistingLogins(Collection<String> logins);
+
+    Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers);
 }
@@ -1,38 +1,133 @@
 package taxi.service;
 
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.Cache;
+import taxi.cache.CacheManager;
+import taxi.cache.CarDriverIndex;
+import taxi.cache.CollectionVersion;
 import taxi.dao.DriverDao;
+import taxi.exception.DataProcessingException;
+import taxi.exception.DuplicateDriverException;
 import taxi.lib.Inject;
 import taxi.lib.Service;
+import taxi.model.Car;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.PasswordUtil;
+import taxi.util.TransactionManager;
 
 @Service
 public class DriverServiceImpl implements DriverService {
+    private static final int DRIVER_CACHE_MAX_SIZE = 10_000;
+    private static final long DRIVER_CACHE_TTL_MILLIS = 300_000;
     private static final Logger logger = LogManager.getLogger(DriverServiceImpl.class);
+    private static final Cache<Long, Driver> driverCache = CacheManager.getCache("drivers",
+            DRIVER_CACHE_MAX_SIZE, DRIVER_CACHE_TTL_MILLIS);
+    private static final Cache<Long, Car> carCache = CacheManager.getCache(
+            CarServiceImpl.CAR_CACHE_NAME, CarServiceImpl.CAR_CACHE_MAX_SIZE,
+            CarServiceImpl.CAR_CACHE_TTL_MILLIS);
+    private static final CarDriverIndex carDriverIndex = CacheManager.getCarDriverIndex();
     @Inject
     private DriverDao driverDao;
 
+    @Override
+    public void streamAll(Consumer<Driver> consumer) {
+        logger.info("Method streamAll was called");
+        driverDao.streamAll(consumer);
+    }
+
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        logger.info("Method createAll was called with params: drivers count = {}",
+                drivers.size());
+        hashPasswords(drivers);
+        List<Driver> created = driverDao.createAll(drivers);
+        CollectionVersion.DRIVERS.increment();
+        return created;
+    }
+
+    @Override
+    public List<Driver> createAllWithHashedPasswords(List<Driver> drivers) {
+        logger.info("Method createAllWithHashedPasswords was called with params: "
+                + "drivers count = {}", drivers.size());
+        List<Driver> created = driverDao.createAll(drivers);
+        CollectionVersion.DRIVERS.increment();
+        return created;
+    }
+
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        logger.info("Method findExistingLogins was called with params: logins count = {}",
+                logins.size());
+        return driverDao.findExistingLogins(logins);
+    }
+
+    @Override
+    public Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) {
+        logger.info("Method findExistingLicenseNumbers was called with params: "
+                + "licenseNumbers count = {}", licenseNumbers.size());
+        return driverDao.findExistingLicenseNumbers(licenseNumbers);
+    }
+
     @Override
     public Driver create(Driver driver) {
         logger.info("Method create was called with params: driver = {}", driver);
-        return driverDao.create(driver);
+        checkUnique(driver);
+        driver.setPassword(PasswordUtil.hash(driver.getPassword()));
+        Driver created;
+        try {
+            created = driverDao.create(driver);
+        } catch (DataProcessingException e) {
+            if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
+                throw new DuplicateDriverException("Driver with login " + driver.getLogin()
+                        + " or license number " + driver.getLicenseNumber()
+                        + " already exists", e);
+            }
+            throw e;
+        }
+        CollectionVersion.DRIVERS.increment();
+        return created;
     }
 
     @Override
     public Driver get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        Optional<Driver> driverFromDb = driverDao.get(id);
-        if (driverFromDb.isEmpty()) {
+        Driver driver = driverCache.get(id, key -> driverDao.get(key).orElse(null));
+        if (driver == null) {
             logger.error("Obtained empty result on get driver by id request "
                     + "with id {}", id);
             throw new NoSuchElementException("Can't get driver by id: " + id);
         }
-        logger.debug("Information about driver was successfully fetched from DB.");
-        return driverFromDb.get();
+        logger.debug("Information about driver was successfully fetched.");
+        return copyOf(driver);
+    }
+
+    @Override
+    public List<Driver> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        Map<Long, Driver> driversById = driverCache.getAll(ids, this::loadByIds);
+        List<Driver> drivers = new ArrayList<>(driversById.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Driver driver = driversById.get(id);
+            if (driver != null) {
+                drivers.add(copyOf(driver));
+            }
+        }
+        return drivers;
     }
 
     @Override
@@ -41,16 +136,57 @@ public class DriverServiceImpl implements DriverService {
         return driverDao.getAll();
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        return driverDao.getPage(pageRequest);
+    }
+
     @Override
     public Driver update(Driver driver) {
         logger.info("Method update was called with params: driver = {}", driver);
-        return driverDao.update(driver);
+        try {
+            return driverDao.update(driver);
+        } finally {
+            CollectionVersion.DRIVERS.increment();
+            invalidateAfterCompletion(Collections.singletonList(driver.getId()));
+        }
+    }
+
+    @Override
+    public List<Driver> updateAll(List<Driver> drivers) {
+        logger.info("Method updateAll was called with params: drivers count = {}",
+                drivers.size());
+        try {
+            return driverDao.updateAll(drivers);
+        } finally {
+            CollectionVersion.DRIVERS.increment();
+            List<Long> ids = new ArrayList<>(drivers.size());
+            drivers.forEach(driver -> ids.add(driver.getId()));
+            invalidateAfterCompletion(ids);
+        }
     }
 
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        return driverDao.delete(id);
+        try {
+            return driverDao.delete(id);
+        } finally {
+            CollectionVersion.DRIVERS.increment();
+            invalidateDeletedAfterCompletion(Collections.singletonList(id));
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        try {
+            return driverDao.deleteAll(ids);
+        } finally {
+            CollectionVersion.DRIVERS.increment();
+            invalidateDeletedAfterCompletion(ids);
+        }
     }
 
     @Override
@@ -58,4 +194,78 @@ public class DriverServiceImpl implements DriverService {
         logger.info("Method findByLogin was called with params: login = {}", login);
         return driverDao.findByLogin(login);
     }
+
+    @Override
+    public Optional<Driver> findCredentialsByLogin(String login) {
+        logger.info("Method findCredentialsByLogin was called with params: login = {}", login);
+        return driverDao.findCredentialsByLogin(login);
+    }
+
+    @Override
+    public boolean updatePassword(Long id, String password) {
+        logger.info("Method updatePassword was called with params: id = {}", id);
+        try {
+            return driverDao.updatePassword(id, PasswordUtil.hash(password));
+        } finally {
+            invalidateAfterCompletion(Collections.singletonList(id));
+        }
+    }
+
+    /**
+     * Reports a taken login or license number the way the import does, instead of leaving
+     * it to the unique indexes. Those still catch a driver added concurrently.
+     */
+    private void checkUnique(Driver driver) {
+        if (!driverDao.findExistingLogins(List.of(driver.getLogin())).isEmpty()) {
+            throw new DuplicateDriverException("Driver with login " + driver.getLogin()
+                    + " already exists");
+        }
+        if (!driverDao.findExistingLicenseNumbers(List.of(driver.getLicenseNumber()))
+                .isEmpty()) {
+            throw new DuplicateDriverException("Driver with license number "
+                    + driver.getLicenseNumber() + " already exists");
+        }
+    }
+
+    /**
+     * Waits for the surrounding transaction, so another thread can't cache rows it still
+     * sees uncommitted after the invalidation.
+     */
+    private void invalidateAfterCompletion(Collection<Long> ids) {
+        List<Long> driverIds = new ArrayList<>(ids);
+        TransactionManager.afterCompletion(() -> driverIds.forEach(id -> {
+            driverCache.invalidate(id);
+            carDriverIndex.invalidateDriver(id).forEach(carCache::invalidate);
+        }));
+    }
+
+    private void invalidateDeletedAfterCompletion(Collection<Long> ids) {
+        List<Long> driverIds = new ArrayList<>(ids);
+        TransactionManager.afterCompletion(() -> driverIds.forEach(id -> {
+            driverCache.invalidate(id);
+            carDriverIndex.removeDriver(id).forEach(carCache::invalidate);
+        }));
+    }
+
+    private void hashPasswords(List<Driver> drivers) {
+        List<String> passwords = new ArrayList<>(drivers.size());
+        drivers.forEach(driver -> passwords.add(driver.getPassword()));
+        List<String> hashes = PasswordUtil.hashAll(passwords);
+        for (int i = 0; i < drivers.size(); i++) {
+            drivers.get(i).setPassword(hashes.get(i));
+        }
+    }
+
+    private Map<Long, Driver> loadByIds(List<Long> ids) {
+        Map<Long, Driver> driversById = new HashMap<>();
+        driverDao.getAllByIds(ids).forEach(driver -> driversById.put(driver.getId(), driver));
+        return driversById;
+    }
+
+    private Driver copyOf(Driver driver) {
+        Driver copy = new Driver(driver.getName(), driver.getLicenseNumber(), driver.getLogin(),
+                driver.getPassword());
+        copy.setId(driver.getId());
+        return copy;
+    }
 }
@@ -1,15 +1,28 @@
 package taxi.service;
 
+import java.util.Collection;
 import java.util.List;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface GenericService<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     T get(Long id);
 
+    List<T> getAllByIds(Collection<Long> ids);
+
     List<T> getAll();
 
+    Page<T> getPage(PageRequest pageRequest);
+
     T update(T element);
 
+    List<T> updateAll(List<T> elements);
+
     boolean delete(Long id);
+
+    int deleteAll(Collection<Long> ids);
 }
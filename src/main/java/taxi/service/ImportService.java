@@ -0,0 +1,15 @@
+package taxi.service;
+
+import java.util.List;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.ImportReport;
+import taxi.model.Manufacturer;
+
+public interface ImportService {
+    ImportReport importManufacturers(List<Manufacturer> manufacturers);
+
+    ImportReport importDrivers(List<Driver> drivers);
+
+    ImportReport importCars(List<Car> cars);
+}
@@ -0,0 +1,274 @@
+package taxi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.ImportReport;
+import taxi.model.Manufacturer;
+import taxi.util.PasswordUtil;
+import taxi.util.TransactionManager;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final Logger logger = LogManager.getLogger(ImportServiceImpl.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_LOGIN_LENGTH = 55;
+    @Inject
+    private ManufacturerService manufacturerService;
+    @Inject
+    private DriverService driverService;
+    @Inject
+    private CarService carService;
+
+    @Override
+    public ImportReport importManufacturers(List<Manufacturer> manufacturers) {
+        logger.info("Method importManufacturers was called with params: rows = {}",
+                manufacturers.size());
+        final long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport("manufacturers", manufacturers.size());
+        List<Manufacturer> valid = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < manufacturers.size(); i++) {
+            Manufacturer manufacturer = manufacturers.get(i);
+            String error = validateText("name", manufacturer.getName(), MAX_TEXT_LENGTH);
+            if (error == null) {
+                error = validateText("country", manufacturer.getCountry(), MAX_TEXT_LENGTH);
+            }
+            if (error != null) {
+                report.addError(i + 1, error);
+                continue;
+            }
+            valid.add(manufacturer);
+            rows.add(i + 1);
+        }
+        createInChunks(valid, rows, report, manufacturerService::createAll);
+        return finish(report, start);
+    }
+
+    @Override
+    public ImportReport importDrivers(List<Driver> drivers) {
+        logger.info("Method importDrivers was called with params: rows = {}", drivers.size());
+        final long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport("drivers", drivers.size());
+        Map<Integer, Driver> validByRow = new HashMap<>();
+        Set<String> logins = new HashSet<>();
+        Set<String> licenseNumbers = new HashSet<>();
+        for (int i = 0; i < drivers.size(); i++) {
+            Driver driver = drivers.get(i);
+            String error = validateDriver(driver);
+            if (error == null && !logins.add(normalize(driver.getLogin()))) {
+                error = "Duplicate login " + driver.getLogin() + " in the import";
+            }
+            if (error == null && !licenseNumbers.add(normalize(driver.getLicenseNumber()))) {
+                error = "Duplicate license number " + driver.getLicenseNumber()
+                        + " in the import";
+            }
+            if (error != null) {
+                report.addError(i + 1, error);
+                continue;
+            }
+            validByRow.put(i + 1, driver);
+        }
+        Set<String> existingLogins = normalize(driverService.findExistingLogins(logins));
+        Set<String> existingLicenseNumbers =
+                normalize(driverService.findExistingLicenseNumbers(licenseNumbers));
+        List<Driver> valid = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 1; row <= drivers.size(); row++) {
+            Driver driver = validByRow.get(row);
+            if (driver == null) {
+                continue;
+            }
+            if (existingLogins.contains(normalize(driver.getLogin()))) {
+                report.addError(row, "Driver with login " + driver.getLogin()
+                        + " already exists");
+            } else if (existingLicenseNumbers.contains(
+                    normalize(driver.getLicenseNumber()))) {
+                report.addError(row, "Driver with license number "
+                        + driver.getLicenseNumber() + " already exists");
+            } else {
+                valid.add(driver);
+                rows.add(row);
+            }
+        }
+        hashPasswords(valid);
+        createInChunks(valid, rows, report, driverService::createAllWithHashedPasswords);
+        return finish(report, start);
+    }
+
+    @Override
+    public ImportReport importCars(List<Car> cars) {
+        logger.info("Method importCars was called with params: rows = {}", cars.size());
+        final long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport("cars", cars.size());
+        Map<Long, Boolean> manufacturerExists = new HashMap<>();
+        Map<Long, Driver> driversById = loadDrivers(cars);
+        List<Car> valid = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < cars.size(); i++) {
+            Car car = cars.get(i);
+            String error = validateText("model", car.getModel(), MAX_TEXT_LENGTH);
+            if (error == null) {
+                error = validateManufacturer(car, manufacturerExists);
+            }
+            if (error == null) {
+                error = resolveDrivers(car, driversById);
+            }
+            if (error != null) {
+                report.addError(i + 1, error);
+                continue;
+            }
+            valid.add(car);
+            rows.add(i + 1);
+        }
+        createInChunks(valid, rows, report, carService::createAll);
+        return finish(report, start);
+    }
+
+    private <T> void createInChunks(List<T> elements, List<Integer> rows, ImportReport report,
+                                    UnaryOperator<List<T>> creator) {
+        for (int from = 0; from < elements.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, elements.size());
+            List<T> chunk = new ArrayList<>(elements.subList(from, to));
+            try {
+                TransactionManager.inTransaction(() -> creator.apply(chunk));
+                report.addImported(chunk.size());
+            } catch (DataProcessingException e) {
+                logger.error("Can't import rows {}-{} of {}, reason: {}", rows.get(from),
+                        rows.get(to - 1), report.getEntityName(), e.getMessage());
+                for (int i = from; i < to; i++) {
+                    report.addError(rows.get(i), "Chunk was rolled back: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes before the chunk transactions open, so that they don't hold a connection while
+     * the hashing pool works.
+     */
+    private void hashPasswords(List<Driver> drivers) {
+        List<String> passwords = new ArrayList<>(drivers.size());
+        drivers.forEach(driver -> passwords.add(driver.getPassword()));
+        List<String> hashes = PasswordUtil.hashAll(passwords);
+        for (int i = 0; i < drivers.size(); i++) {
+            drivers.get(i).setPassword(hashes.get(i));
+        }
+    }
+
+    private ImportReport finish(ImportReport report, long start) {
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        logger.debug("Import was accomplished. report = {}", report);
+        return report;
+    }
+
+    private String validateDriver(Driver driver) {
+        String error = validateText("name", driver.getName(), MAX_TEXT_LENGTH);
+        if (error == null) {
+            error = validateText("license number", driver.getLicenseNumber(),
+                    MAX_TEXT_LENGTH);
+        }
+        if (error == null) {
+            error = validateText("login", driver.getLogin(), MAX_LOGIN_LENGTH);
+        }
+        if (error == null) {
+            error = validateText("password", driver.getPassword(), MAX_TEXT_LENGTH);
+        }
+        return error;
+    }
+
+    private String validateManufacturer(Car car, Map<Long, Boolean> manufacturerExists) {
+        if (car.getManufacturer() == null || car.getManufacturer().getId() == null) {
+            return "Manufacturer id is required";
+        }
+        Long manufacturerId = car.getManufacturer().getId();
+        boolean exists = manufacturerExists.computeIfAbsent(manufacturerId, id -> {
+            try {
+                car.setManufacturer(manufacturerService.get(id));
+                return true;
+            } catch (NoSuchElementException e) {
+                return false;
+            }
+        });
+        return exists ? null : "Manufacturer with id " + manufacturerId + " doesn't exist";
+    }
+
+    /**
+     * Loads every driver the cars refer to with one batch lookup instead of one query per
+     * driver id.
+     */
+    private Map<Long, Driver> loadDrivers(List<Car> cars) {
+        Set<Long> driverIds = new HashSet<>();
+        for (Car car : cars) {
+            if (car.getDrivers() != null) {
+                car.getDrivers().stream()
+                        .map(Driver::getId)
+                        .filter(Objects::nonNull)
+                        .forEach(driverIds::add);
+            }
+        }
+        Map<Long, Driver> driversById = new HashMap<>();
+        if (!driverIds.isEmpty()) {
+            driverService.getAllByIds(driverIds)
+                    .forEach(driver -> driversById.put(driver.getId(), driver));
+        }
+        return driversById;
+    }
+
+    private String resolveDrivers(Car car, Map<Long, Driver> driversById) {
+        if (car.getDrivers() == null) {
+            car.setDrivers(new ArrayList<>());
+            return null;
+        }
+        for (Driver driver : car.getDrivers()) {
+            Long driverId = driver.getId();
+            if (driverId == null) {
+                return "Driver id is required";
+            }
+            if (!driversById.containsKey(driverId)) {
+                return "Driver with id " + driverId + " doesn't exist";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Logins and license numbers are unique regardless of case in the database, so they
+     * are compared in lower case here too.
+     */
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Collection<String> values) {
+        Set<String> normalized = new HashSet<>();
+        values.forEach(value -> normalized.add(normalize(value)));
+        return normalized;
+    }
+
+    private String validateText(String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return "Field " + field + " is required";
+        }
+        if (value.length() > maxLength) {
+            return "Field " + field + " is longer than " + maxLength + " characters";
+        }
+        return null;
+    }
+}
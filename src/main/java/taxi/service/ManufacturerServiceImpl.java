@@ -1,18 +1,44 @@
 package taxi.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Optional;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.Cache;
+import taxi.cache.CacheManager;
+import taxi.cache.CarDriverIndex;
+import taxi.cache.CollectionVersion;
 import taxi.dao.ManufacturerDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
+import taxi.model.Car;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.TransactionManager;
 
 @Service
 public class ManufacturerServiceImpl implements ManufacturerService {
     private static final Logger logger = LogManager.getLogger(ManufacturerServiceImpl.class);
+    private static final int CACHE_MAX_SIZE = 1_000;
+    private static final long CACHE_TTL_MILLIS = 300_000;
+    private static final String ALL_MANUFACTURERS_KEY = "all";
+    private static final Cache<Long, Manufacturer> manufacturerCache =
+            CacheManager.getCache("manufacturers", CACHE_MAX_SIZE, CACHE_TTL_MILLIS);
+    private static final Cache<String, List<Manufacturer>> allManufacturersCache =
+            CacheManager.getCache("allManufacturers", 1, CACHE_TTL_MILLIS);
+    private static final Cache<Long, Car> carCache = CacheManager.getCache(
+            CarServiceImpl.CAR_CACHE_NAME, CarServiceImpl.CAR_CACHE_MAX_SIZE,
+            CarServiceImpl.CAR_CACHE_TTL_MILLIS);
+    private static final CarDriverIndex carDriverIndex = CacheManager.getCarDriverIndex();
+
     @Inject
     private ManufacturerDao manufacturerDao;
 
@@ -20,38 +46,140 @@ public class ManufacturerServiceImpl implements ManufacturerService {
     public Manufacturer create(Manufacturer manufacturer) {
         logger.info("Method create was called with params: manufacturer = {}",
                     manufacturer);
-        return manufacturerDao.create(manufacturer);
+        Manufacturer created = manufacturerDao.create(manufacturer);
+        TransactionManager.afterCompletion(allManufacturersCache::invalidateAll);
+        CollectionVersion.MANUFACTURERS.increment();
+        return created;
+    }
+
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        logger.info("Method createAll was called with params: manufacturers count = {}",
+                manufacturers.size());
+        List<Manufacturer> created = manufacturerDao.createAll(manufacturers);
+        TransactionManager.afterCompletion(allManufacturersCache::invalidateAll);
+        CollectionVersion.MANUFACTURERS.increment();
+        return created;
     }
 
     @Override
     public Manufacturer get(Long id) {
         logger.info("Method get was called with params: id = {}", id);
-        Optional<Manufacturer> manufacturerFromDb = manufacturerDao.get(id);
-        if (manufacturerFromDb.isEmpty()) {
+        Manufacturer manufacturer = manufacturerCache.get(id,
+                key -> manufacturerDao.get(key).orElse(null));
+        if (manufacturer == null) {
             logger.error("Obtained empty result on get manufacturer by id request "
                     + "with id {}", id);
             throw new NoSuchElementException("Can't get manufacturer by id: " + id);
         }
-        logger.debug("Information about manufacturer was successfully fetched from DB.");
-        return manufacturerFromDb.get();
+        logger.debug("Information about manufacturer was successfully fetched.");
+        return copyOf(manufacturer);
+    }
+
+    @Override
+    public List<Manufacturer> getAllByIds(Collection<Long> ids) {
+        logger.info("Method getAllByIds was called with params: ids count = {}", ids.size());
+        Map<Long, Manufacturer> manufacturersById =
+                manufacturerCache.getAll(ids, this::loadByIds);
+        List<Manufacturer> manufacturers = new ArrayList<>(manufacturersById.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Manufacturer manufacturer = manufacturersById.get(id);
+            if (manufacturer != null) {
+                manufacturers.add(copyOf(manufacturer));
+            }
+        }
+        return manufacturers;
     }
 
     @Override
     public List<Manufacturer> getAll() {
         logger.info("Method getAll was called");
-        return manufacturerDao.getAll();
+        return allManufacturersCache.get(ALL_MANUFACTURERS_KEY,
+                key -> List.copyOf(manufacturerDao.getAll())).stream()
+                .map(this::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<Manufacturer> getPage(PageRequest pageRequest) {
+        logger.info("Method getPage was called with params: pageRequest = {}", pageRequest);
+        return manufacturerDao.getPage(pageRequest);
     }
 
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
         logger.info("Method update was called with params: manufacturer = {}",
                     manufacturer);
-        return manufacturerDao.update(manufacturer);
+        try {
+            return manufacturerDao.update(manufacturer);
+        } finally {
+            CollectionVersion.MANUFACTURERS.increment();
+            invalidateAfterCompletion(Collections.singletonList(manufacturer.getId()));
+        }
+    }
+
+    @Override
+    public List<Manufacturer> updateAll(List<Manufacturer> manufacturers) {
+        logger.info("Method updateAll was called with params: manufacturers count = {}",
+                manufacturers.size());
+        try {
+            return manufacturerDao.updateAll(manufacturers);
+        } finally {
+            CollectionVersion.MANUFACTURERS.increment();
+            List<Long> ids = new ArrayList<>(manufacturers.size());
+            manufacturers.forEach(manufacturer -> ids.add(manufacturer.getId()));
+            invalidateAfterCompletion(ids);
+        }
     }
 
     @Override
     public boolean delete(Long id) {
         logger.info("Method delete was called with params: id = {}", id);
-        return manufacturerDao.delete(id);
+        try {
+            return manufacturerDao.delete(id);
+        } finally {
+            CollectionVersion.MANUFACTURERS.increment();
+            invalidateAfterCompletion(Collections.singletonList(id));
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<Long> ids) {
+        logger.info("Method deleteAll was called with params: ids count = {}", ids.size());
+        try {
+            return manufacturerDao.deleteAll(ids);
+        } finally {
+            CollectionVersion.MANUFACTURERS.increment();
+            invalidateAfterCompletion(ids);
+        }
+    }
+
+    private Map<Long, Manufacturer> loadByIds(List<Long> ids) {
+        Map<Long, Manufacturer> manufacturersById = new HashMap<>();
+        manufacturerDao.getAllByIds(ids).forEach(manufacturer ->
+                manufacturersById.put(manufacturer.getId(), manufacturer));
+        return manufacturersById;
+    }
+
+    /**
+     * Runs once the surrounding transaction has completed, so another thread can't cache
+     * rows it still sees uncommitted. Cached cars carry the name and country of their
+     * manufacturer. Clearing the index first keeps cars loaded before the write from being
+     * stored afterwards.
+     */
+    private void invalidateAfterCompletion(Collection<Long> ids) {
+        List<Long> manufacturerIds = new ArrayList<>(ids);
+        TransactionManager.afterCompletion(() -> {
+            manufacturerIds.forEach(manufacturerCache::invalidate);
+            allManufacturersCache.invalidateAll();
+            carDriverIndex.clear();
+            carCache.invalidateAll();
+        });
+    }
+
+    private Manufacturer copyOf(Manufacturer manufacturer) {
+        Manufacturer copy = new Manufacturer(manufacturer.getName(), manufacturer.getCountry());
+        copy.setId(manufacturer.getId());
+        return copy;
     }
 }
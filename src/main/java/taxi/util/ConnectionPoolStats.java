@@ -0,0 +1,25 @@
+package taxi.util;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+@MXBean
+public interface ConnectionPoolStats {
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getTotalConnections();
+
+    int getThreadsAwaitingConnection();
+
+    long getAcquireCount();
+
+    long getAcquireTimeoutCount();
+
+    long getLeakCount();
+
+    double getAcquireTimeMeanMillis();
+
+    Map<String, Long> getAcquireTimeHistogram();
+}
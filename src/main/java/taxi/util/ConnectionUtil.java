@@ -1,18 +1,33 @@
 package taxi.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.metrics.MetricsRegistry;
 
 public class ConnectionUtil {
     private static final String URL = "jdbc:mysql://127.0.0.1:3306/taxi_service_db";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "password";
     private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 20;
+    private static final long POOL_ACQUIRE_TIMEOUT_MILLIS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 600_000;
+    /**
+     * Off by default: tracking captures a stack trace on every borrow, and long streaming
+     * exports would be reported as leaks. Enable it with
+     * {@code -Dtaxi.db.pool.leakDetectionThresholdMillis} while hunting a leak.
+     */
+    private static final long POOL_LEAK_DETECTION_THRESHOLD_MILLIS = 0;
+    private static final int PREPARED_STATEMENT_CACHE_SIZE = 250;
+    private static final int PREPARED_STATEMENT_CACHE_SQL_LIMIT = 4096;
+    private static final String POOL_MBEAN_NAME = "taxi:type=ConnectionPool";
     private static final Logger logger = LogManager.getLogger(ConnectionUtil.class);
+    private static final ConnectionPool pool;
 
     static {
         logger.info("Static block was called");
@@ -22,19 +37,70 @@ public class ConnectionUtil {
             logger.error("Can't find SQL Driver, reason: {}", e.getMessage());
             throw new RuntimeException("Can't find SQL Driver", e);
         }
+        String url = System.getProperty("taxi.db.url", URL);
+        Properties dbProperties = new Properties();
+        dbProperties.setProperty("user", System.getProperty("taxi.db.user", USERNAME));
+        dbProperties.setProperty("password", System.getProperty("taxi.db.password", PASSWORD));
+        if (url.startsWith(MYSQL_URL_PREFIX)) {
+            dbProperties.setProperty("rewriteBatchedStatements", "true");
+            if (isStatementCacheEnabled()) {
+                dbProperties.setProperty("useServerPrepStmts", "true");
+                dbProperties.setProperty("cachePrepStmts", "true");
+                dbProperties.setProperty("prepStmtCacheSize", String.valueOf(
+                        Integer.getInteger("taxi.db.prepStmtCacheSize",
+                                PREPARED_STATEMENT_CACHE_SIZE)));
+                dbProperties.setProperty("prepStmtCacheSqlLimit",
+                        String.valueOf(PREPARED_STATEMENT_CACHE_SQL_LIMIT));
+            }
+        }
+        pool = new ConnectionPool(url, dbProperties,
+                Integer.getInteger("taxi.db.pool.minSize", POOL_MIN_SIZE),
+                Integer.getInteger("taxi.db.pool.maxSize", POOL_MAX_SIZE),
+                Long.getLong("taxi.db.pool.acquireTimeoutMillis", POOL_ACQUIRE_TIMEOUT_MILLIS),
+                Long.getLong("taxi.db.pool.idleTimeoutMillis", POOL_IDLE_TIMEOUT_MILLIS),
+                Long.getLong("taxi.db.pool.leakDetectionThresholdMillis",
+                        POOL_LEAK_DETECTION_THRESHOLD_MILLIS));
+        JmxUtil.register(pool, POOL_MBEAN_NAME);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.register("db_connection_acquire_seconds", "", pool.getAcquireTime());
+        metrics.gauge("db_connections", MetricsRegistry.labels("state", "active"),
+                pool::getActiveConnections);
+        metrics.gauge("db_connections", MetricsRegistry.labels("state", "idle"),
+                pool::getIdleConnections);
+        metrics.gauge("db_connections_pending", "", pool::getThreadsAwaitingConnection);
     }
 
     public static Connection getConnection() {
         logger.info("Method getConnection was called");
-        Properties dbProperties = new Properties();
-        dbProperties.setProperty("user", USERNAME);
-        dbProperties.setProperty("password", PASSWORD);
+        Connection transactionConnection = TransactionManager.getBoundConnection();
+        if (transactionConnection != null) {
+            return transactionConnection;
+        }
         try {
-            return DriverManager.getConnection(URL, dbProperties);
+            return pool.getConnection();
         } catch (SQLException e) {
-            logger.error("Can't create connection to DB, reason: {} ",
+            logger.error("Can't get connection to DB, reason: {} ",
                             e.getMessage());
-            throw new RuntimeException("Can't create connection to DB ", e);
+            throw new RuntimeException("Can't get connection to DB ", e);
         }
     }
+
+    public static ConnectionPoolStats getPoolMetrics() {
+        return pool;
+    }
+
+    public static void shutdown() {
+        logger.info("Method shutdown was called");
+        JmxUtil.unregister(POOL_MBEAN_NAME);
+        pool.close();
+    }
+
+    /**
+     * Server-side prepared statements cached per connection, on unless
+     * {@code -Dtaxi.db.statementCache=false}; off leaves the driver's defaults, which is
+     * how the benchmarks compare the two.
+     */
+    private static boolean isStatementCacheEnabled() {
+        return Boolean.parseBoolean(System.getProperty("taxi.db.statementCache", "true"));
+    }
 }
@@ -0,0 +1,86 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class CsvUtil {
+    public static String toCsvLine(Object... values) {
+        StringJoiner line = new StringJoiner(",");
+        for (Object value : values) {
+            line.add(escape(value == null ? "" : value.toString()));
+        }
+        return line.toString();
+    }
+
+    public static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Reads CSV with a header line into one map per record, keyed by the trimmed header
+     * names. Quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    public static List<Map<String, String>> parse(Reader reader) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            return rows;
+        }
+        header.replaceAll(String::trim);
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < record.size() ? record.get(i) : null);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> readRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
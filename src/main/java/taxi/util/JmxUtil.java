@@ -0,0 +1,39 @@
+package taxi.util;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class JmxUtil {
+    private static final Logger logger = LogManager.getLogger(JmxUtil.class);
+
+    public static void register(Object mbean, String name) {
+        logger.info("Method register was called with params: name = {}", name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            logger.error("Can't register MBean {}, reason: {}", name, e.getMessage());
+        }
+    }
+
+    public static void unregister(String name) {
+        logger.info("Method unregister was called with params: name = {}", name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            logger.error("Can't unregister MBean {}, reason: {}", name, e.getMessage());
+        }
+    }
+}
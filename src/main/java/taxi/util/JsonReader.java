@@ -0,0 +1,179 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Minimal reader for an array of flat JSON objects, as produced by import files. Values are
+ * returned as strings; an array of scalars is joined with {@code ;} and nested objects are
+ * rejected.
+ */
+public class JsonReader {
+    private final PushbackReader reader;
+
+    public JsonReader(Reader reader) {
+        this.reader = new PushbackReader(reader);
+    }
+
+    public List<Map<String, String>> readObjects() throws IOException {
+        List<Map<String, String>> objects = new ArrayList<>();
+        expect('[');
+        if (peek() == ']') {
+            reader.read();
+            return objects;
+        }
+        do {
+            objects.add(readObject());
+        } while (nextSeparator(']'));
+        return objects;
+    }
+
+    private Map<String, String> readObject() throws IOException {
+        Map<String, String> object = new LinkedHashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            reader.read();
+            return object;
+        }
+        do {
+            expect('"');
+            String name = readString();
+            expect(':');
+            object.put(name, peek() == '[' ? readScalarArray() : readScalar());
+        } while (nextSeparator('}'));
+        return object;
+    }
+
+    private String readScalarArray() throws IOException {
+        expect('[');
+        StringJoiner values = new StringJoiner(";");
+        if (peek() == ']') {
+            reader.read();
+            return values.toString();
+        }
+        do {
+            String value = readScalar();
+            if (value != null) {
+                values.add(value);
+            }
+        } while (nextSeparator(']'));
+        return values.toString();
+    }
+
+    private String readScalar() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            reader.read();
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw new IOException("Nested JSON values are not supported");
+        }
+        StringBuilder literal = new StringBuilder();
+        while ((c = reader.read()) >= 0 && c != ',' && c != '}' && c != ']'
+                && !Character.isWhitespace(c)) {
+            literal.append((char) c);
+        }
+        if (c >= 0) {
+            reader.unread(c);
+        }
+        String value = literal.toString();
+        if (value.isEmpty()) {
+            throw new IOException("Expected a JSON value");
+        }
+        return value.equals("null") ? null : value;
+    }
+
+    private String readString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != '"') {
+            if (c < 0) {
+                throw new IOException("Unterminated JSON string");
+            }
+            if (c == '\\') {
+                c = reader.read();
+                switch (c) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        value.append(readUnicodeEscape());
+                        break;
+                    default:
+                        value.append((char) c);
+                }
+            } else {
+                value.append((char) c);
+            }
+        }
+        return value.toString();
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        char[] digits = new char[4];
+        for (int i = 0; i < digits.length; i++) {
+            int c = reader.read();
+            if (c < 0) {
+                throw new IOException("Unterminated JSON string");
+            }
+            digits[i] = (char) c;
+        }
+        try {
+            return (char) Integer.parseInt(new String(digits), 16);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid unicode escape \\u" + new String(digits), e);
+        }
+    }
+
+    private boolean nextSeparator(char end) throws IOException {
+        int c = skipWhitespace();
+        if (c == ',') {
+            return true;
+        }
+        if (c == end) {
+            return false;
+        }
+        throw new IOException("Expected ',' or '" + end + "' in JSON");
+    }
+
+    private void expect(char expected) throws IOException {
+        if (skipWhitespace() != expected) {
+            throw new IOException("Expected '" + expected + "' in JSON");
+        }
+    }
+
+    private int peek() throws IOException {
+        int c = skipWhitespace();
+        if (c >= 0) {
+            reader.unread(c);
+        }
+        return c;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c >= 0 && Character.isWhitespace(c));
+        return c;
+    }
+}
@@ -0,0 +1,360 @@
+package taxi.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Applies the versioned scripts listed in {@code db/migration/migrations.idx} that are not
+ * yet recorded in {@code schema_version}. Scripts are named
+ * {@code V<version>__<description>.sql}; statements end with a semicolon at the end of a line.
+ *
+ * <p>On MySQL the run holds a named lock, so only one of several nodes starting at once
+ * migrates, and DDL gives up after {@code taxi.db.migrate.lockWaitTimeoutSeconds} instead of
+ * queueing every query on the table behind a long transaction. Released scripts must not
+ * change: their checksums are compared on every start.
+ */
+public class MigrationRunner {
+    private static final String MIGRATION_LOCATION = "db/migration/";
+    private static final String MIGRATION_INDEX = MIGRATION_LOCATION + "migrations.idx";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String MYSQL_PRODUCT_NAME = "MySQL";
+    private static final String MIGRATION_LOCK_NAME = "taxi_schema_migration";
+    private static final int MIGRATION_LOCK_TIMEOUT_SECONDS = 300;
+    private static final int LOCK_WAIT_TIMEOUT_SECONDS = 5;
+    private static final String CREATE_VERSION_TABLE_QUERY =
+            "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, "
+            + "description VARCHAR(255) NOT NULL, "
+            + "script VARCHAR(255) NOT NULL, "
+            + "checksum VARCHAR(64), "
+            + "installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "execution_millis BIGINT NOT NULL)";
+    private static final String ADD_CHECKSUM_COLUMN_QUERY =
+            "ALTER TABLE schema_version ADD COLUMN checksum VARCHAR(64) AFTER script";
+    private static final String GET_APPLIED_QUERY =
+            "SELECT version, checksum FROM schema_version ORDER BY version";
+    private static final String INSERT_VERSION_QUERY = "INSERT INTO schema_version "
+            + "(version, description, script, checksum, execution_millis) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_CHECKSUM_QUERY =
+            "UPDATE schema_version SET checksum = ? WHERE version = ?";
+    private static final String GET_LOCK_QUERY = "SELECT GET_LOCK(?, ?)";
+    private static final String RELEASE_LOCK_QUERY = "SELECT RELEASE_LOCK(?)";
+    private static final String GET_LOCK_WAIT_TIMEOUT_QUERY =
+            "SELECT @@SESSION.lock_wait_timeout";
+    private static final String SET_LOCK_WAIT_TIMEOUT_QUERY = "SET SESSION lock_wait_timeout = ";
+    private static final Logger logger = LogManager.getLogger(MigrationRunner.class);
+
+    public static void migrate() {
+        logger.info("Method migrate was called");
+        List<Migration> migrations = loadMigrations();
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            boolean isMySql = MYSQL_PRODUCT_NAME.equals(
+                    connection.getMetaData().getDatabaseProductName());
+            if (isMySql) {
+                acquireLock(connection);
+            }
+            try {
+                migrate(connection, migrations, isMySql);
+            } finally {
+                if (isMySql) {
+                    releaseLock(connection);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Can't migrate database schema, reason: {}", e.getMessage());
+            throw new DataProcessingException("Can't migrate database schema", e);
+        }
+        logger.debug("Method migrate was accomplished.");
+    }
+
+    private static void migrate(Connection connection, List<Migration> migrations,
+                                boolean isMySql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CREATE_VERSION_TABLE_QUERY);
+        }
+        addChecksumColumnIfMissing(connection);
+        Map<Integer, String> applied = getAppliedChecksums(connection);
+        List<Migration> pending = validate(connection, migrations, applied);
+        if (pending.isEmpty()) {
+            logger.info("Database schema is up to date");
+            return;
+        }
+        int previousLockWaitTimeout = isMySql ? setLockWaitTimeout(connection) : 0;
+        try {
+            for (Migration migration : pending) {
+                apply(connection, migration);
+            }
+        } finally {
+            if (isMySql) {
+                executeStatement(connection,
+                        SET_LOCK_WAIT_TIMEOUT_QUERY + previousLockWaitTimeout);
+            }
+        }
+    }
+
+    /**
+     * Fails when a released script was edited or a script was added below the newest
+     * applied version, and returns the scripts still to apply. Rows written before
+     * checksums were recorded get the checksum of the current script.
+     */
+    private static List<Migration> validate(Connection connection, List<Migration> migrations,
+                                            Map<Integer, String> applied) throws SQLException {
+        int latestApplied = applied.keySet().stream().mapToInt(Integer::intValue).max()
+                .orElse(0);
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (!applied.containsKey(migration.version)) {
+                if (migration.version < latestApplied) {
+                    throw new DataProcessingException("Migration " + migration.script
+                            + " is older than the applied version " + latestApplied, null);
+                }
+                pending.add(migration);
+                continue;
+            }
+            String checksum = applied.remove(migration.version);
+            if (checksum == null) {
+                updateChecksum(connection, migration);
+            } else if (!checksum.equals(migration.checksum)) {
+                throw new DataProcessingException("Migration " + migration.script
+                        + " was changed after it had been applied", null);
+            }
+        }
+        if (!applied.isEmpty()) {
+            logger.warn("Applied migrations {} are missing from {}", applied.keySet(),
+                    MIGRATION_INDEX);
+        }
+        return pending;
+    }
+
+    private static Map<Integer, String> getAppliedChecksums(Connection connection)
+            throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(GET_APPLIED_QUERY)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * {@code schema_version} tables created before checksums were tracked lack the column.
+     */
+    private static void addChecksumColumnIfMissing(Connection connection) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(),
+                null, "schema_version", "checksum")) {
+            if (columns.next()) {
+                return;
+            }
+        }
+        executeStatement(connection, ADD_CHECKSUM_COLUMN_QUERY);
+    }
+
+    private static void updateChecksum(Connection connection, Migration migration)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_CHECKSUM_QUERY)) {
+            statement.setString(1, migration.checksum);
+            statement.setInt(2, migration.version);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void acquireLock(Connection connection) throws SQLException {
+        int timeoutSeconds = Integer.getInteger("taxi.db.migrate.lockTimeoutSeconds",
+                MIGRATION_LOCK_TIMEOUT_SECONDS);
+        try (PreparedStatement statement = connection.prepareStatement(GET_LOCK_QUERY)) {
+            statement.setString(1, MIGRATION_LOCK_NAME);
+            statement.setInt(2, timeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Timed out after " + timeoutSeconds
+                            + " s waiting for another node to finish migrating");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(RELEASE_LOCK_QUERY)) {
+            statement.setString(1, MIGRATION_LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warn("Can't release migration lock, reason: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the previous value, so the pooled connection can be put back as it was.
+     */
+    private static int setLockWaitTimeout(Connection connection) throws SQLException {
+        int previous;
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(GET_LOCK_WAIT_TIMEOUT_QUERY)) {
+            resultSet.next();
+            previous = resultSet.getInt(1);
+        }
+        executeStatement(connection, SET_LOCK_WAIT_TIMEOUT_QUERY + Integer.getInteger(
+                "taxi.db.migrate.lockWaitTimeoutSeconds", LOCK_WAIT_TIMEOUT_SECONDS));
+        return previous;
+    }
+
+    private static void executeStatement(Connection connection, String sql)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * MySQL commits DDL implicitly, so a script that fails halfway is not rolled back and
+     * its version is not recorded. That is why a script holds a single DDL statement, or
+     * statements that can run twice.
+     */
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        logger.info("Applying migration {} ({})", migration.version, migration.script);
+        long start = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration.script + " failed", e);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_VERSION_QUERY)) {
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
+            statement.setString(3, migration.script);
+            statement.setString(4, migration.checksum);
+            statement.setLong(5, System.currentTimeMillis() - start);
+            statement.executeUpdate();
+        }
+    }
+
+    private static List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        int previousVersion = 0;
+        for (String line : readLines(MIGRATION_INDEX)) {
+            Matcher matcher = SCRIPT_NAME.matcher(line);
+            if (!matcher.matches()) {
+                throw new DataProcessingException("Invalid migration script name: " + line,
+                        null);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= previousVersion) {
+                throw new DataProcessingException("Migration " + line
+                        + " is out of order in " + MIGRATION_INDEX, null);
+            }
+            previousVersion = version;
+            List<String> lines = readLines(MIGRATION_LOCATION + line);
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), line,
+                    checksum(lines), splitStatements(lines)));
+        }
+        return migrations;
+    }
+
+    private static List<String> splitStatements(List<String> lines) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        for (String line : lines) {
+            if (line.startsWith("--")) {
+                continue;
+            }
+            if (line.endsWith(";")) {
+                statement.append(line, 0, line.length() - 1);
+                statements.add(statement.toString());
+                statement.setLength(0);
+            } else {
+                statement.append(line).append('\n');
+            }
+        }
+        if (statement.length() > 0) {
+            statements.add(statement.toString());
+        }
+        return statements;
+    }
+
+    /**
+     * Hashes the trimmed lines, so line endings and indentation changed by a checkout don't
+     * count as an edit.
+     */
+    private static String checksum(List<String> lines) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the trimmed, non-blank lines of a class path resource, skipping lines that
+     * start with {@code #}.
+     */
+    private static List<String> readLines(String resource) {
+        ClassLoader classLoader = MigrationRunner.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new DataProcessingException("Can't find " + resource, null);
+            }
+            List<String> lines = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new DataProcessingException("Can't read " + resource, e);
+        }
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String checksum;
+        private final List<String> statements;
+
+        Migration(int version, String description, String script, String checksum,
+                  List<String> statements) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.checksum = checksum;
+            this.statements = statements;
+        }
+    }
+}
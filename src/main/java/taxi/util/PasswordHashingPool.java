@@ -0,0 +1,184 @@
+package taxi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing on a fixed number of threads so that a burst of logins can't take
+ * every CPU away from other requests. Callers wait for their result; at most
+ * {@code poolSize + queueCapacity} tasks are admitted at a time and a caller that can't
+ * get in within {@code acquireTimeoutMillis} is rejected with
+ * {@link RejectedExecutionException}.
+ */
+public class PasswordHashingPool implements PasswordHashingStats {
+    private final int iterations;
+    private final int poolSize;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    public PasswordHashingPool(int iterations, int poolSize, int queueCapacity,
+                               long acquireTimeoutMillis) {
+        if (poolSize < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid pool size " + poolSize
+                    + " or queue capacity " + queueCapacity);
+        }
+        this.iterations = iterations;
+        this.poolSize = poolSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(poolSize + queueCapacity, true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), this::newThread);
+    }
+
+    public <T> T execute(Callable<T> task) {
+        acquirePermit();
+        return await(submit(task));
+    }
+
+    /**
+     * Runs the tasks at most {@code poolSize} at a time, so a bulk operation never fills
+     * the queue and logins arriving meanwhile are still admitted.
+     */
+    public <T> List<T> executeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (int from = 0; from < tasks.size(); from += poolSize) {
+            List<Future<T>> window = new ArrayList<>(poolSize);
+            for (Callable<T> task : tasks.subList(from, Math.min(from + poolSize,
+                    tasks.size()))) {
+                acquirePermit();
+                window.add(submit(task));
+            }
+            for (Future<T> future : window) {
+                results.add(await(future));
+            }
+        }
+        return results;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @Override
+    public int getActiveTasks() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return executionTime.getCount();
+    }
+
+    @Override
+    public long getRejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    @Override
+    public double getQueueWaitMeanMillis() {
+        return queueWait.getMeanMillis();
+    }
+
+    @Override
+    public Map<String, Long> getQueueWaitHistogram() {
+        return queueWait.toMap();
+    }
+
+    @Override
+    public double getExecutionTimeMeanMillis() {
+        return executionTime.getMeanMillis();
+    }
+
+    @Override
+    public Map<String, Long> getExecutionTimeHistogram() {
+        return executionTime.toMap();
+    }
+
+    private Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable,
+                "taxi-password-hashing-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void acquirePermit() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a hashing slot");
+        }
+        if (!acquired) {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Password hashing is saturated: "
+                    + getActiveTasks() + " running, " + getQueuedTasks() + " queued");
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    executionTime.record(System.nanoTime() - startedAt);
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejectedTasks.increment();
+            throw e;
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package taxi.util;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+@MXBean
+public interface PasswordHashingStats {
+    int getIterations();
+
+    int getPoolSize();
+
+    int getActiveTasks();
+
+    int getQueuedTasks();
+
+    long getCompletedTasks();
+
+    long getRejectedTasks();
+
+    double getQueueWaitMeanMillis();
+
+    Map<String, Long> getQueueWaitHistogram();
+
+    double getExecutionTimeMeanMillis();
+
+    Map<String, Long> getExecutionTimeHistogram();
+}
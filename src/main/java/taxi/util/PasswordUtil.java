@@ -0,0 +1,70 @@
+package taxi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class PasswordUtil {
+    private static final int ITERATIONS = 210_000;
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int QUEUE_CAPACITY = 256;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 2_000;
+    private static final String MBEAN_NAME = "taxi:type=PasswordHashing";
+    private static final Logger logger = LogManager.getLogger(PasswordUtil.class);
+    private static final PasswordHasher hasher;
+    private static final PasswordHashingPool pool;
+    private static final String dummyHash;
+
+    static {
+        logger.info("Static block was called");
+        int iterations = Integer.getInteger("taxi.password.iterations", ITERATIONS);
+        hasher = new PasswordHasher(iterations);
+        pool = new PasswordHashingPool(iterations,
+                Integer.getInteger("taxi.password.poolSize", POOL_SIZE),
+                Integer.getInteger("taxi.password.queueCapacity", QUEUE_CAPACITY),
+                Long.getLong("taxi.password.acquireTimeoutMillis", ACQUIRE_TIMEOUT_MILLIS));
+        dummyHash = hasher.hash("dummy");
+        JmxUtil.register(pool, MBEAN_NAME);
+    }
+
+    public static String hash(String password) {
+        if (password == null) {
+            return null;
+        }
+        return pool.execute(() -> hasher.hash(password));
+    }
+
+    public static List<String> hashAll(List<String> passwords) {
+        List<Callable<String>> tasks = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            tasks.add(() -> password == null ? null : hasher.hash(password));
+        }
+        return pool.executeAll(tasks);
+    }
+
+    /**
+     * Verifies against a dummy hash when no password is stored, so that unknown logins
+     * take as long as wrong passwords.
+     */
+    public static boolean verify(String password, String stored) {
+        String expected = stored == null ? dummyHash : stored;
+        boolean matches = pool.execute(() -> hasher.verify(password, expected));
+        return stored != null && matches;
+    }
+
+    public static boolean needsRehash(String stored) {
+        return hasher.needsRehash(stored);
+    }
+
+    public static PasswordHashingStats getMetrics() {
+        return pool;
+    }
+
+    public static void shutdown() {
+        logger.info("Method shutdown was called");
+        JmxUtil.unregister(MBEAN_NAME);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,84 @@
+package taxi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Issues and checks tokens of the form {@code <driverId>.<expiresAtMillis>.<signature>},
+ * where the signature is the URL-safe Base64 HMAC-SHA256 of the first two parts. Any node
+ * configured with the same secret accepts the tokens of the others.
+ */
+public class TokenSigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH_BYTES = 32;
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+
+    public TokenSigner(byte[] secret, long ttlMillis) {
+        if (secret.length < MIN_SECRET_LENGTH_BYTES) {
+            throw new IllegalArgumentException("Token secret must be at least "
+                    + MIN_SECRET_LENGTH_BYTES + " bytes long");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Invalid token lifetime: " + ttlMillis);
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttlMillis = ttlMillis;
+    }
+
+    public String sign(Long driverId) {
+        String payload = driverId + "." + (System.currentTimeMillis() + ttlMillis);
+        return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac(payload));
+    }
+
+    /**
+     * Returns the driver id of a valid, unexpired token, or null for anything else.
+     */
+    public Long verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.indexOf('.');
+        if (signatureStart <= expiryStart || expiryStart <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, signatureStart);
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(signature, mac(payload))) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            return expiresAt > System.currentTimeMillis()
+                    ? Long.valueOf(token.substring(0, expiryStart)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    private byte[] mac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Can't compute " + ALGORITHM, e);
+        }
+    }
+}
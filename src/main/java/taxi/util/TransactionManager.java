@@ -0,0 +1,109 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Runs a unit of work on a single connection in one transaction. While the work runs,
+ * {@link ConnectionUtil#getConnection()} hands out that connection to every DAO call made
+ * by the same thread, and closing it there has no effect. Nested calls join the outer
+ * transaction.
+ */
+public class TransactionManager {
+    private static final Logger logger = LogManager.getLogger(TransactionManager.class);
+    private static final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> completionCallbacks = new ThreadLocal<>();
+
+    public static <T> T inTransaction(Supplier<T> work) {
+        if (boundConnection.get() != null) {
+            return work.get();
+        }
+        logger.debug("Method inTransaction opens a new transaction");
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            boundConnection.set(connection);
+            completionCallbacks.set(new ArrayList<>());
+            try {
+                T result = work.get();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException | Error e) {
+                rollback(connection);
+                throw e;
+            } finally {
+                boundConnection.remove();
+                runCompletionCallbacks();
+            }
+        } catch (SQLException e) {
+            logger.error("Can't complete transaction, reason: {}", e.getMessage());
+            throw new DataProcessingException("Can't complete transaction", e);
+        }
+    }
+
+    public static void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the callback once the current transaction has committed or rolled back, or
+     * right away when there is none, so that it never observes uncommitted writes.
+     */
+    public static void afterCompletion(Runnable callback) {
+        List<Runnable> callbacks = completionCallbacks.get();
+        if (callbacks == null) {
+            callback.run();
+        } else {
+            callbacks.add(callback);
+        }
+    }
+
+    static Connection getBoundConnection() {
+        Connection connection = boundConnection.get();
+        if (connection == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void runCompletionCallbacks() {
+        List<Runnable> callbacks = completionCallbacks.get();
+        completionCallbacks.remove();
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                logger.error("Transaction completion callback failed, reason: {}",
+                        e.getMessage());
+            }
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.error("Can't rollback transaction, reason: {}", e.getMessage());
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package taxi.web.filter;
 
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -14,16 +15,68 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.cache.Cache;
+import taxi.cache.CacheManager;
+import taxi.lib.Injector;
+import taxi.model.DriverPrincipal;
+import taxi.service.AuthenticationService;
+import taxi.web.util.AuthTokenUtil;
+import taxi.web.util.JsonResponseUtil;
 
+/**
+ * Lets requests to the allowed paths through without touching the session, and puts the
+ * signed-in {@link DriverPrincipal} on every other request. The principal is rebuilt from
+ * the caches once it is older than {@code taxi.auth.principalRefreshMillis}, so renames
+ * and car assignments show up without signing in again. In token mode the driver comes
+ * from a signed token and the principal from a cache local to this node, so no state is
+ * shared between nodes.
+ */
 public class AuthenticationFilter implements Filter {
     private static final Logger logger = LogManager.getLogger(AuthenticationFilter.class);
-    private Set<String> allowedUrls = new HashSet<>();
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final String DEFAULT_ALLOWED_PATHS = "/login, /drivers/add";
+    private static final String METRICS_PATH = "/metrics";
+    private static final long PRINCIPAL_REFRESH_MILLIS = 30_000;
+    private static final int PRINCIPAL_CACHE_MAX_SIZE = 10_000;
+    private static final String API_PATH_PREFIX = "/api/";
+    private final AuthenticationService authenticationService = (AuthenticationService)
+            injector.getInstance(AuthenticationService.class);
+    private final long principalRefreshMillis = Long.getLong(
+            "taxi.auth.principalRefreshMillis", PRINCIPAL_REFRESH_MILLIS);
+    private final Cache<Long, DriverPrincipal> principalCache = CacheManager.getCache(
+            "principals", PRINCIPAL_CACHE_MAX_SIZE, principalRefreshMillis);
+    private Pattern allowedPaths;
+    private boolean tokenMode;
 
+    /**
+     * Compiles the comma-separated {@code allowedPaths} init parameter into one pattern.
+     * An entry ending in {@code /*} allows everything below it. {@code /metrics} is added
+     * only when the deployment opts in with {@code -Dtaxi.metrics.public=true}, for a
+     * Prometheus server that can't sign in.
+     */
     @Override
     public void init(FilterConfig filterConfig) {
         logger.info("Method init was called");
-        allowedUrls.add("/login");
-        allowedUrls.add("/drivers/add");
+        String paths = filterConfig.getInitParameter("allowedPaths");
+        StringJoiner regex = new StringJoiner("|");
+        for (String path : (paths == null ? DEFAULT_ALLOWED_PATHS : paths).split(",")) {
+            path = path.trim();
+            if (path.endsWith("/*")) {
+                regex.add(Pattern.quote(path.substring(0, path.length() - 1)) + ".*");
+            } else if (!path.isEmpty()) {
+                regex.add(Pattern.quote(path));
+            }
+        }
+        if (Boolean.getBoolean("taxi.metrics.public")) {
+            regex.add(Pattern.quote(METRICS_PATH));
+            logger.warn("{} is served without authentication", METRICS_PATH);
+        }
+        allowedPaths = Pattern.compile(regex.toString());
+        tokenMode = AuthTokenUtil.isTokenMode(filterConfig.getServletContext());
+        if (tokenMode) {
+            AuthTokenUtil.checkConfiguration();
+        }
+        logger.info("Authentication mode is {}", tokenMode ? "token" : "session");
     }
 
     @Override
@@ -32,12 +85,70 @@ public class AuthenticationFilter implements Filter {
         logger.info("Method doFilter was called");
         HttpServletRequest req = (HttpServletRequest) request;
         HttpServletResponse resp = (HttpServletResponse) response;
-        HttpSession session = req.getSession();
-        Long driverId = (Long) session.getAttribute("driver_id");
-        if (driverId != null || allowedUrls.contains(req.getServletPath())) {
+        if (allowedPaths.matcher(req.getServletPath()).matches()) {
             chain.doFilter(req, resp);
             return;
         }
-        resp.sendRedirect(req.getContextPath() + "/login");
+        DriverPrincipal principal = tokenMode
+                ? getTokenPrincipal(req, resp) : getSessionPrincipal(req);
+        if (principal == null && req.getServletPath().startsWith(API_PATH_PREFIX)) {
+            JsonResponseUtil.sendError(resp, HttpServletResponse.SC_UNAUTHORIZED,
+                    "Authentication required");
+            return;
+        }
+        if (principal == null) {
+            resp.sendRedirect(req.getContextPath() + "/login");
+            return;
+        }
+        req.setAttribute(DriverPrincipal.ATTRIBUTE, principal);
+        chain.doFilter(req, resp);
+    }
+
+    private DriverPrincipal getSessionPrincipal(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+        DriverPrincipal principal = session == null
+                ? null : (DriverPrincipal) session.getAttribute(DriverPrincipal.ATTRIBUTE);
+        if (principal != null
+                && System.currentTimeMillis() - principal.getLoadedAt() > principalRefreshMillis) {
+            principal = refresh(session, principal);
+        }
+        return principal;
+    }
+
+    private DriverPrincipal getTokenPrincipal(HttpServletRequest req, HttpServletResponse resp) {
+        Long driverId = AuthTokenUtil.readDriverId(req);
+        DriverPrincipal principal = driverId == null
+                ? null : principalCache.get(driverId, this::loadPrincipal);
+        if (principal == null) {
+            AuthTokenUtil.clear(req, resp);
+        }
+        return principal;
+    }
+
+    /**
+     * Returns null for a driver deleted after the token was issued.
+     */
+    private DriverPrincipal loadPrincipal(Long driverId) {
+        try {
+            return authenticationService.getPrincipal(driverId);
+        } catch (NoSuchElementException e) {
+            logger.info("Driver {} no longer exists, rejecting the token", driverId);
+            return null;
+        }
+    }
+
+    /**
+     * Returns null and ends the session when the driver was deleted in the meantime.
+     */
+    private DriverPrincipal refresh(HttpSession session, DriverPrincipal principal) {
+        try {
+            DriverPrincipal refreshed = authenticationService.getPrincipal(principal.getId());
+            session.setAttribute(DriverPrincipal.ATTRIBUTE, refreshed);
+            return refreshed;
+        } catch (NoSuchElementException e) {
+            logger.info("Driver {} no longer exists, ending the session", principal.getId());
+            session.invalidate();
+            return null;
+        }
     }
 }
@@ -0,0 +1,114 @@
+package taxi.web.filter;
+
+import java.io.IOException;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import taxi.metrics.MetricsRegistry;
+import taxi.metrics.RequestMetrics;
+import taxi.metrics.StatementProfiler;
+
+/**
+ * Times every request by the servlet that served it and the status class of the response,
+ * and records how much of it was spent in JDBC statements and how much in forwarding to
+ * the JSP views. Statements that the request repeated too often are reported to
+ * {@link StatementProfiler}. Mapped before every other filter so that their time counts
+ * too.
+ */
+public class MetricsFilter implements Filter {
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!MetricsRegistry.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest req = (HttpServletRequest) request;
+        RequestMetrics requestMetrics =
+                RequestMetrics.start(req.getMethod() + " " + req.getRequestURI());
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(new RenderTimingRequest(req, requestMetrics), response);
+            failed = false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestMetrics.end();
+            StatementProfiler.endRequest(requestMetrics);
+            record(req, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                    : ((HttpServletResponse) response).getStatus(), requestMetrics, elapsed);
+        }
+    }
+
+    private void record(HttpServletRequest req, int status, RequestMetrics requestMetrics,
+                        long elapsed) {
+        HttpServletMapping mapping = req.getHttpServletMapping();
+        String servlet = mapping == null || mapping.getServletName() == null
+                ? "none" : mapping.getServletName();
+        String servletLabel = MetricsRegistry.labels("servlet", servlet);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.timer("http_server_requests_seconds", MetricsRegistry.labels(
+                "servlet", servlet, "status", status / 100 + "xx")).record(elapsed);
+        metrics.timer("http_server_db_seconds", servletLabel)
+                .record(requestMetrics.getDbNanos());
+        metrics.timer("http_server_render_seconds", servletLabel)
+                .record(requestMetrics.getRenderNanos());
+        metrics.counter("http_server_sql_statements_total", servletLabel)
+                .add(requestMetrics.getStatementCount());
+    }
+
+    private static class RenderTimingRequest extends HttpServletRequestWrapper {
+        private final RequestMetrics requestMetrics;
+
+        RenderTimingRequest(HttpServletRequest request, RequestMetrics requestMetrics) {
+            super(request);
+            this.requestMetrics = requestMetrics;
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(String path) {
+            RequestDispatcher dispatcher = super.getRequestDispatcher(path);
+            return dispatcher == null ? null
+                    : new RenderTimingDispatcher(dispatcher, requestMetrics);
+        }
+    }
+
+    private static class RenderTimingDispatcher implements RequestDispatcher {
+        private final RequestDispatcher dispatcher;
+        private final RequestMetrics requestMetrics;
+
+        RenderTimingDispatcher(RequestDispatcher dispatcher, RequestMetrics requestMetrics) {
+            this.dispatcher = dispatcher;
+            this.requestMetrics = requestMetrics;
+        }
+
+        @Override
+        public void forward(ServletRequest request, ServletResponse response)
+                throws ServletException, IOException {
+            requestMetrics.beginRender();
+            try {
+                dispatcher.forward(request, response);
+            } finally {
+                requestMetrics.endRender();
+            }
+        }
+
+        @Override
+        public void include(ServletRequest request, ServletResponse response)
+                throws ServletException, IOException {
+            requestMetrics.beginRender();
+            try {
+                dispatcher.include(request, response);
+            } finally {
+                requestMetrics.endRender();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stops Log4j when the application is undeployed so that events still waiting in the
+ * asynchronous loggers' ring buffer are written out. Declared before the other listeners
+ * in web.xml, so it is destroyed after them and still sees their last log lines.
+ */
+public class LoggingListener implements ServletContextListener {
+    private static final Logger logger = LogManager.getLogger(LoggingListener.class);
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        logger.info("Method contextDestroyed was called");
+        LogManager.shutdown();
+    }
+}
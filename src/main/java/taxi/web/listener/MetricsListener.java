@@ -0,0 +1,28 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.metrics.MetricsRegistry;
+import taxi.util.JmxUtil;
+
+public class MetricsListener implements ServletContextListener {
+    private static final Logger logger = LogManager.getLogger(MetricsListener.class);
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        logger.info("Method contextInitialized was called");
+        if (MetricsRegistry.isEnabled()) {
+            JmxUtil.register(MetricsRegistry.getInstance(), MetricsRegistry.MBEAN_NAME);
+        } else {
+            logger.info("Metrics are disabled");
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        logger.info("Method contextDestroyed was called");
+        JmxUtil.unregister(MetricsRegistry.MBEAN_NAME);
+    }
+}
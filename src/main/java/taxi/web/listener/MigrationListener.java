@@ -0,0 +1,23 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.MigrationRunner;
+
+/**
+ * Brings the schema up to date before the first request. Start with
+ * {@code -Dtaxi.db.migrate=false} when migrations are applied out of band.
+ */
+public class MigrationListener implements ServletContextListener {
+    private static final Logger logger = LogManager.getLogger(MigrationListener.class);
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        logger.info("Method contextInitialized was called");
+        if (Boolean.parseBoolean(System.getProperty("taxi.db.migrate", "true"))) {
+            MigrationRunner.migrate();
+        }
+    }
+}
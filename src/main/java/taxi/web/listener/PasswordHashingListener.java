@@ -0,0 +1,17 @@
+package taxi.web.listener;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.PasswordUtil;
+
+public class PasswordHashingListener implements ServletContextListener {
+    private static final Logger logger = LogManager.getLogger(PasswordHashingListener.class);
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        logger.info("Method contextDestroyed was called");
+        PasswordUtil.shutdown();
+    }
+}
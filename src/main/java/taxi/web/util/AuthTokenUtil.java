@@ -0,0 +1,101 @@
+package taxi.web.util;
+
+import java.util.Base64;
+import javax.servlet.ServletContext;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.TokenSigner;
+
+/**
+ * Signed-token sign-in, used instead of the HTTP session when the {@code authMode} context
+ * parameter is {@code token}. Every node must start with the same Base64
+ * {@code taxi.auth.tokenSecret}. Tokens can't be revoked before they expire; signing out
+ * only drops the cookie.
+ */
+public class AuthTokenUtil {
+    public static final String AUTH_MODE_PARAMETER = "authMode";
+    public static final String TOKEN_MODE = "token";
+    public static final String COOKIE_NAME = "auth_token";
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final long TOKEN_TTL_SECONDS = 8 * 60 * 60;
+
+    public static boolean isTokenMode(ServletContext context) {
+        return TOKEN_MODE.equalsIgnoreCase(context.getInitParameter(AUTH_MODE_PARAMETER));
+    }
+
+    /**
+     * Fails at startup rather than on the first sign-in when the secret is missing.
+     */
+    public static void checkConfiguration() {
+        SignerHolder.signer.getTtlMillis();
+    }
+
+    /**
+     * Sends the token as an HttpOnly cookie for browsers and in {@value #TOKEN_HEADER} for
+     * clients that pass it back as {@code Authorization: Bearer <token>}.
+     */
+    public static void issue(HttpServletRequest req, HttpServletResponse resp, Long driverId) {
+        String token = SignerHolder.signer.sign(driverId);
+        resp.setHeader(TOKEN_HEADER, token);
+        resp.addHeader("Set-Cookie", buildCookie(req, token,
+                SignerHolder.signer.getTtlMillis() / 1000));
+    }
+
+    /**
+     * Returns the driver id of a valid token from the Authorization header or, failing
+     * that, the cookie, or null when there is none.
+     */
+    public static Long readDriverId(HttpServletRequest req) {
+        String authorization = req.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return SignerHolder.signer.verify(
+                    authorization.substring(BEARER_PREFIX.length()).trim());
+        }
+        String token = getCookieValue(req);
+        return token == null ? null : SignerHolder.signer.verify(token);
+    }
+
+    public static void clear(HttpServletRequest req, HttpServletResponse resp) {
+        if (getCookieValue(req) != null) {
+            resp.addHeader("Set-Cookie", buildCookie(req, "", 0));
+        }
+    }
+
+    private static String getCookieValue(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Written by hand because the Servlet 4 {@link Cookie} has no SameSite attribute.
+     */
+    private static String buildCookie(HttpServletRequest req, String value, long maxAgeSeconds) {
+        String path = req.getContextPath().isEmpty() ? "/" : req.getContextPath();
+        return COOKIE_NAME + "=" + value + "; Path=" + path + "; Max-Age=" + maxAgeSeconds
+                + "; HttpOnly; SameSite=Lax" + (req.isSecure() ? "; Secure" : "");
+    }
+
+    private static class SignerHolder {
+        private static final TokenSigner signer = createSigner();
+
+        private static TokenSigner createSigner() {
+            String secret = System.getProperty("taxi.auth.tokenSecret");
+            if (secret == null || secret.isBlank()) {
+                throw new IllegalStateException("taxi.auth.tokenSecret must be set to the "
+                        + "same Base64 secret on every node to use token authentication");
+            }
+            return new TokenSigner(Base64.getDecoder().decode(secret.trim()), 1000
+                    * Long.getLong("taxi.auth.tokenTtlSeconds", TOKEN_TTL_SECONDS));
+        }
+    }
+}
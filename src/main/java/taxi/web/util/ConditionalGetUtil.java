@@ -0,0 +1,78 @@
+package taxi.web.util;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.cache.CollectionVersion;
+
+/**
+ * Collection versions only count the writes made on this node. When several nodes share
+ * the database, a client could get 304s for a listing that another node has changed, so
+ * every validator also carries the wall-clock window it was issued in and stops matching
+ * once that window is over. {@code taxi.web.conditionalGetMaxStaleSeconds} sets the
+ * window, and so the longest time such a change can go unnoticed; 0 turns conditional
+ * GETs off.
+ */
+public class ConditionalGetUtil {
+    private static final long MAX_STALE_SECONDS = 10;
+    private static final long maxStaleMillis = TimeUnit.SECONDS.toMillis(Long.getLong(
+            "taxi.web.conditionalGetMaxStaleSeconds", MAX_STALE_SECONDS));
+
+    /**
+     * Sets a strong ETag and Last-Modified derived from the versions of the collections a
+     * page shows, and answers with 304 when the client's copy is current. Call it before
+     * loading any data: a write that lands in between then only causes an extra 200.
+     * If-None-Match takes precedence over If-Modified-Since.
+     *
+     * @return true when the 304 was sent and the request is done
+     */
+    public static boolean isNotModified(HttpServletRequest req, HttpServletResponse resp,
+                                        CollectionVersion... collections) {
+        if (maxStaleMillis <= 0) {
+            return false;
+        }
+        long window = System.currentTimeMillis() / maxStaleMillis;
+        StringBuilder etag = new StringBuilder("\"").append(CollectionVersion.getEpoch())
+                .append('-').append(window);
+        long lastModified = window * maxStaleMillis;
+        for (CollectionVersion collection : collections) {
+            CollectionVersion.Snapshot snapshot = collection.get();
+            etag.append('-').append(snapshot.getVersion());
+            lastModified = Math.max(lastModified, snapshot.getLastModified());
+        }
+        String tag = etag.append('"').toString();
+        resp.setHeader("ETag", tag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = matches(ifNoneMatch, tag);
+        } else {
+            long ifModifiedSince = getDateHeader(req, "If-Modified-Since");
+            notModified = ifModifiedSince >= lastModified;
+        }
+        if (notModified) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return notModified;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getDateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package taxi.web.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The top-level fields a client asked for with {@code ?fields=id,name}. Without the
+ * parameter every field is included.
+ */
+public class FieldProjection {
+    private static final FieldProjection ALL = new FieldProjection(null);
+    private final Set<String> fields;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldProjection parse(String parameter, Set<String> allowedFields) {
+        if (parameter == null || parameter.isBlank()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : parameter.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!allowedFields.contains(field)) {
+                throw new IllegalArgumentException("Unknown field " + field
+                        + ", expected one of " + allowedFields);
+            }
+            fields.add(field);
+        }
+        return fields.isEmpty() ? ALL : new FieldProjection(fields);
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+}
@@ -0,0 +1,114 @@
+package taxi.web.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.JsonWriter;
+
+/**
+ * Writes JSON API responses. The body is rendered into a buffer first, so the response
+ * carries an ETag and a Content-Length, a matching {@code If-None-Match} gets a 304
+ * without a body, and larger bodies are gzipped for clients that accept it.
+ */
+public class JsonResponseUtil {
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final int GZIP_MIN_LENGTH = 1024;
+    private static final int ETAG_LENGTH_BYTES = 16;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    public static void send(HttpServletRequest req, HttpServletResponse resp, Body body)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+        body.writeTo(json);
+        json.flush();
+        byte[] bytes = buffer.toByteArray();
+        String etag = "W/\"" + digest(bytes) + "\"";
+        resp.setHeader("ETag", etag);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        resp.setHeader("Vary", "Accept-Encoding");
+        if (matches(req.getHeader("If-None-Match"), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        write(req, resp, bytes);
+    }
+
+    public static void sendError(HttpServletResponse resp, int status, String message)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+        json.beginObject()
+                .name("status").value(status)
+                .name("error").value(message)
+                .endObject()
+                .flush();
+        resp.setStatus(status);
+        resp.setContentType(CONTENT_TYPE);
+        resp.setContentLength(buffer.size());
+        buffer.writeTo(resp.getOutputStream());
+    }
+
+    /**
+     * Weak comparison: the ETag is computed before compression, so the gzipped and the
+     * plain representation share it.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag)
+                    || candidate.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write(HttpServletRequest req, HttpServletResponse resp, byte[] bytes)
+            throws IOException {
+        resp.setContentType(CONTENT_TYPE);
+        byte[] content = bytes;
+        if (bytes.length >= GZIP_MIN_LENGTH && acceptsGzip(req)) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            content = compressed.toByteArray();
+            resp.setHeader("Content-Encoding", "gzip");
+        }
+        resp.setContentLength(content.length);
+        resp.getOutputStream().write(content);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest req) {
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(ETAG_LENGTH_BYTES * 2);
+            for (int i = 0; i < ETAG_LENGTH_BYTES; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public interface Body {
+        void writeTo(JsonWriter json) throws IOException;
+    }
+}
@@ -0,0 +1,26 @@
+package taxi.web.util;
+
+import javax.servlet.http.HttpServletRequest;
+import taxi.model.PageRequest;
+
+public class PaginationUtil {
+    public static PageRequest parsePageRequest(HttpServletRequest req) {
+        Long afterId = parseLong(req.getParameter("after"));
+        Long size = parseLong(req.getParameter("size"));
+        PageRequest.Direction direction = "desc".equalsIgnoreCase(req.getParameter("sort"))
+                ? PageRequest.Direction.DESC : PageRequest.Direction.ASC;
+        return new PageRequest(afterId,
+                size == null ? PageRequest.DEFAULT_SIZE : size.intValue(), direction);
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Tables as created by the original init_db.sql. IF NOT EXISTS makes this a no-op
+-- on databases that were set up with that script.
+CREATE TABLE IF NOT EXISTS `drivers`  (
+    `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
+    `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `license_number` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `login` VARCHAR(55) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `password` VARCHAR(55) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
+    PRIMARY KEY (`id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+CREATE TABLE IF NOT EXISTS `manufacturers`  (
+    `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
+    `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `country` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
+    PRIMARY KEY (`id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+CREATE TABLE IF NOT EXISTS `cars`  (
+    `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
+    `model` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    `manufacturer_id` BIGINT(0) UNSIGNED NOT NULL,
+    `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
+    PRIMARY KEY (`id`) USING BTREE,
+    INDEX `FK_manufacturer_id`(`manufacturer_id`) USING BTREE,
+    CONSTRAINT `FK_manufacturer_id` FOREIGN KEY (`manufacturer_id`) REFERENCES `manufacturers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+
+CREATE TABLE IF NOT EXISTS `cars_drivers`  (
+    `car_id` BIGINT(0) UNSIGNED NOT NULL,
+    `driver_id` BIGINT(0) UNSIGNED NOT NULL,
+    PRIMARY KEY (`car_id`, `driver_id`) USING BTREE,
+    INDEX `driver_id`(`driver_id`) USING BTREE,
+    INDEX `car_id`(`car_id`) USING BTREE,
+    CONSTRAINT `car_id` FOREIGN KEY (`car_id`) REFERENCES `cars` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT,
+    CONSTRAINT `driver_id` FOREIGN KEY (`driver_id`) REFERENCES `drivers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
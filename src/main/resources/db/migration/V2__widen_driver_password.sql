@@ -0,0 +1,6 @@
+-- PBKDF2 hashes are about 85 characters long.
+-- Not online: a utf8 VARCHAR(55) stores its length in one byte and VARCHAR(255) needs two,
+-- so InnoDB rebuilds the table. Writes to drivers block until the copy is done; reads go on.
+ALTER TABLE `drivers`
+    MODIFY `password` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
+    ALGORITHM = COPY, LOCK = SHARED;
@@ -0,0 +1,7 @@
+-- Logins and license numbers must be unique, including soft-deleted drivers: the import
+-- already rejects duplicates against all rows. Remove existing duplicates before
+-- running this on an old database, otherwise the unique indexes can't be built.
+ALTER TABLE `drivers`
+    ADD UNIQUE INDEX `uk_drivers_login` (`login`),
+    ADD UNIQUE INDEX `uk_drivers_license_number` (`license_number`),
+    ADD INDEX `idx_drivers_is_deleted_id` (`is_deleted`, `id`);
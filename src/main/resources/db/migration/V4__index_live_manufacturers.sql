@@ -0,0 +1,3 @@
+-- Every listing filters on is_deleted and pages by id.
+ALTER TABLE `manufacturers`
+    ADD INDEX `idx_manufacturers_is_deleted_id` (`is_deleted`, `id`);
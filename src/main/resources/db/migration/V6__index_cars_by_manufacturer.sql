@@ -0,0 +1,6 @@
+-- Written to run against a live database: the index is built in place without blocking
+-- writes, and the statement fails instead of falling back to a table copy.
+-- Listing cars filters on is_deleted and joins manufacturers.
+ALTER TABLE `cars`
+    ADD INDEX `idx_cars_is_deleted_manufacturer_id` (`is_deleted`, `manufacturer_id`),
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,8 @@
+-- Written to run against a live database, like V6. Cars of a driver are read from the
+-- new index alone. The old single-column index is a prefix of it, so the new one backs
+-- the foreign key; both changes are one statement, so neither can be applied without
+-- the other.
+ALTER TABLE `cars_drivers`
+    ADD INDEX `idx_cars_drivers_driver_id_car_id` (`driver_id`, `car_id`),
+    DROP INDEX `driver_id`,
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -4,57 +4,13 @@ SET NAMES utf8mb4;
 SET FOREIGN_KEY_CHECKS = 0;
 
 -- ----------------------------
--- Table structure for drivers
--- ----------------------------
-DROP TABLE IF EXISTS `drivers`;
-CREATE TABLE `drivers`  (
-                            `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
-                            `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                            `license_number` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                            `login` VARCHAR(55) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                            `password` VARCHAR(55) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                            `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
-                            PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
-
--- ----------------------------
--- Table structure for manufacturers
--- ----------------------------
-DROP TABLE IF EXISTS `manufacturers`;
-CREATE TABLE `manufacturers`  (
-                                  `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
-                                  `name` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                                  `country` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                                  `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
-                                  PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
-
--- ----------------------------
--- Table structure for cars
--- ----------------------------
-DROP TABLE IF EXISTS `cars`;
-CREATE TABLE `cars`  (
-                         `id` BIGINT(0) UNSIGNED NOT NULL AUTO_INCREMENT,
-                         `model` VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_general_ci NOT NULL,
-                         `manufacturer_id` BIGINT(0) UNSIGNED NOT NULL,
-                         `is_deleted` BIT(1) NOT NULL DEFAULT b'0',
-                         PRIMARY KEY (`id`) USING BTREE,
-                         INDEX `FK_manufacturer_id`(`manufacturer_id`) USING BTREE,
-                         CONSTRAINT `FK_manufacturer_id` FOREIGN KEY (`manufacturer_id`) REFERENCES `manufacturers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
-) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
-
--- ----------------------------
--- Table structure for cars_drivers
+-- Resets the database. The tables are created by the versioned scripts in
+-- db/migration, which the application applies on startup.
 -- ----------------------------
 DROP TABLE IF EXISTS `cars_drivers`;
-CREATE TABLE `cars_drivers`  (
-                                 `car_id` BIGINT(0) UNSIGNED NOT NULL,
-                                 `driver_id` BIGINT(0) UNSIGNED NOT NULL,
-                                 PRIMARY KEY (`car_id`, `driver_id`) USING BTREE,
-                                 INDEX `driver_id`(`driver_id`) USING BTREE,
-                                 INDEX `car_id`(`car_id`) USING BTREE,
-                                 CONSTRAINT `car_id` FOREIGN KEY (`car_id`) REFERENCES `cars` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT,
-                                 CONSTRAINT `driver_id` FOREIGN KEY (`driver_id`) REFERENCES `drivers` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
-) ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;
+DROP TABLE IF EXISTS `cars`;
+DROP TABLE IF EXISTS `manufacturers`;
+DROP TABLE IF EXISTS `drivers`;
+DROP TABLE IF EXISTS `schema_version`;
 
 SET FOREIGN_KEY_CHECKS = 1;
@@ -44,5 +44,6 @@
         </tr>
     </c:forEach>
 </table>
+<%@include file="/WEB-INF/views/pagination.jsp" %>
 </body>
 </html>
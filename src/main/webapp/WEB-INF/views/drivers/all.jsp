@@ -34,5 +34,6 @@
         </tr>
     </c:forEach>
 </table>
+<%@include file="/WEB-INF/views/pagination.jsp" %>
 </body>
 </html>
@@ -0,0 +1,76 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<style>
+    <%@include file='/WEB-INF/views/css/table_dark.css' %>
+</style>
+<html>
+<head>
+    <title>Import</title>
+</head>
+<body>
+<form method="post" id="import" enctype="multipart/form-data"
+      action="${pageContext.request.contextPath}/import"></form>
+<%@include file="/WEB-INF/views/header.jsp" %>
+<h1 class="table_dark">Import from CSV or JSON:</h1>
+<h4 style="color:red">${errorMsg}</h4>
+<table border="1" class="table_dark">
+    <tr>
+        <th>Type</th>
+        <th>File</th>
+        <th>Import</th>
+    </tr>
+    <tr>
+        <td>
+            <select name="type" form="import">
+                <option value="manufacturers">Manufacturers (name, country)</option>
+                <option value="drivers">Drivers (name, license_number, login, password)</option>
+                <option value="cars">Cars (model, manufacturer_id, driver_ids)</option>
+            </select>
+        </td>
+        <td>
+            <input type="file" name="file" accept=".csv,.json" form="import" required>
+        </td>
+        <td>
+            <input type="submit" name="import" form="import">
+        </td>
+    </tr>
+</table>
+<c:if test="${report != null}">
+    <h1 class="table_dark">Imported ${report.entityName}:</h1>
+    <table border="1" class="table_dark">
+        <tr>
+            <th>Total rows</th>
+            <th>Imported</th>
+            <th>Failed</th>
+            <th>Time, ms</th>
+            <th>Rows per second</th>
+        </tr>
+        <tr>
+            <td>${report.totalRows}</td>
+            <td>${report.importedRows}</td>
+            <td>${report.failedRows}</td>
+            <td>${report.elapsedMillis}</td>
+            <td>${report.rowsPerSecond}</td>
+        </tr>
+    </table>
+    <c:if test="${report.failedRows > 0}">
+        <table border="1" class="table_dark">
+            <tr>
+                <th>Row</th>
+                <th>Error</th>
+            </tr>
+            <c:forEach var="error" items="${report.errors}">
+                <tr>
+                    <td>
+                        <c:out value="${error.row}"/>
+                    </td>
+                    <td>
+                        <c:out value="${error.message}"/>
+                    </td>
+                </tr>
+            </c:forEach>
+        </table>
+    </c:if>
+</c:if>
+</body>
+</html>
@@ -22,6 +22,9 @@
     <tr><td><a href="${pageContext.request.contextPath}/manufacturers/add">Create new Manufacturer</a></td></tr>
     <tr><td><a href="${pageContext.request.contextPath}/cars/drivers/add">Add Driver to Car</a></td></tr>
     <tr><td><a href="${pageContext.request.contextPath}/drivers/cars">Get my current cars</a></td></tr>
+    <tr><td><a href="${pageContext.request.contextPath}/drivers/export">Export All Drivers (CSV)</a></td></tr>
+    <tr><td><a href="${pageContext.request.contextPath}/cars/export">Export All Cars (CSV)</a></td></tr>
+    <tr><td><a href="${pageContext.request.contextPath}/import">Import from CSV or JSON</a></td></tr>
 </table>
 </body>
 </html>
@@ -0,0 +1,21 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<c:set var="pagePath"
+       value="${pageContext.request.contextPath}${requestScope['javax.servlet.forward.servlet_path']}"/>
+<c:set var="pageSort" value="${pageRequest.descending ? 'desc' : 'asc'}"/>
+<c:if test="${not empty pageRequest}">
+    <table class="table_dark">
+        <tr>
+            <c:if test="${not empty param.after}">
+                <th><a href="${pagePath}?size=${pageRequest.size}&sort=${pageSort}">First page</a></th>
+            </c:if>
+            <c:if test="${not empty page.nextCursor}">
+                <th><a href="${pagePath}?after=${page.nextCursor}&size=${pageRequest.size}&sort=${pageSort}">Next page</a></th>
+            </c:if>
+            <th>
+                Sort by ID:
+                <a href="${pagePath}?size=${pageRequest.size}&sort=asc">ascending</a>
+                <a href="${pagePath}?size=${pageRequest.size}&sort=desc">descending</a>
+            </th>
+        </tr>
+    </table>
+</c:if>